@@ -18,11 +18,18 @@
 
 package org.mule.tools.module.helper;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Annotations {
 
@@ -36,6 +43,21 @@ public class Annotations {
     public static final String TRANSFORMER_ANNOTATION_CLASS_NAME = "org.mule.api.annotations.Transformer";
     public static final String ICONS_ANNOTATION_CLASS_NAME = "org.mule.api.annotations.display.Icons";
 
+    //Annotations of a Class and its super Classes by annotation type name; first one wins as in Classes#allAnnotations order.
+    private static final LoadingCache<Class<?>, Map<String, Annotation>> ANNOTATIONS_BY_NAME_CACHE = CacheBuilder.newBuilder().weakKeys().softValues().build(new CacheLoader<Class<?>, Map<String, Annotation>>() {
+        @Override
+        public Map<String, Annotation> load(final Class<?> type) {
+            final Map<String, Annotation> annotationsByName = new HashMap<String, Annotation>();
+            for (final Annotation annotation : Classes.allAnnotations(type)) {
+                final String annotationName = annotation.annotationType().getName();
+                if (!annotationsByName.containsKey(annotationName)) {
+                    annotationsByName.put(annotationName, annotation);
+                }
+            }
+            return Collections.unmodifiableMap(annotationsByName);
+        }
+    });
+
     private Annotations() {
     }
 
@@ -49,7 +71,7 @@ public class Annotations {
     }
 
     private static Object getAnnotation(final Class<?> type, final String annotationName) {
-        return Annotations.getAnnotation(Classes.allAnnotations(type), annotationName);
+        return Annotations.ANNOTATIONS_BY_NAME_CACHE.getUnchecked(type).get(annotationName);
     }
 
     public static Object getAnnotation(final AnnotatedElement element, final String annotationName) {
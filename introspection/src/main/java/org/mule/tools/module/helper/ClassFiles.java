@@ -0,0 +1,273 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Helper methods reading class files without defining classes.
+ * <br />
+ * Only the constant pool, class header and class level attributes are parsed: enough to get a class hierarchy and its runtime visible annotations
+ * without triggering class loading or static initialisers.
+ */
+public final class ClassFiles {
+
+    /**
+     * Class level details extracted from a class file. Names are binary names (e.g. `java.lang.Object`).
+     */
+    @Immutable
+    public static final class ClassInfo {
+
+        private final String name;
+        private final String superName;
+        private final Set<String> annotationTypes;
+
+        private ClassInfo(final String name, @Nullable final String superName, final Set<String> annotationTypes) {
+            this.name = name;
+            this.superName = superName;
+            this.annotationTypes = Collections.unmodifiableSet(annotationTypes);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * @return name without package, same as {@link Class#getSimpleName()} for top level classes
+         */
+        public String getSimpleName() {
+            return this.name.substring(this.name.lastIndexOf('.') + 1);
+        }
+
+        /**
+         * @return super class name, null for `java.lang.Object`
+         */
+        @Nullable
+        public String getSuperName() {
+            return this.superName;
+        }
+
+        /**
+         * @return names of runtime visible annotations declared on this class
+         */
+        public Set<String> getAnnotationTypes() {
+            return this.annotationTypes;
+        }
+
+        public boolean isAnnotatedWith(final String annotationType) {
+            return this.annotationTypes.contains(annotationType);
+        }
+
+        @Override
+        public String toString() {
+            return "name: <"+this.name+"> superName: <"+this.superName+"> annotationTypes: <"+this.annotationTypes+">";
+        }
+
+    }
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private ClassFiles() {
+    }
+
+    /**
+     * @param bytes content of a class file
+     * @return {@link ClassInfo} for `bytes`
+     * @throws IllegalArgumentException if `bytes` is not a valid class file
+     */
+    public static ClassInfo parse(final byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("null bytes");
+        }
+
+        try {
+            return ClassFiles.parse(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid class file", e);
+        }
+    }
+
+    private static ClassInfo parse(final DataInputStream input) throws IOException {
+        if (input.readInt() != ClassFiles.MAGIC) {
+            throw new IllegalArgumentException("Invalid class file magic number");
+        }
+        //minor and major versions
+        input.skipBytes(4);
+
+        //Only UTF8 and Class entries are kept: Class entries point to their UTF8 name.
+        final int constantPoolCount = input.readUnsignedShort();
+        final String[] utf8s = new String[constantPoolCount];
+        final int[] classNameIndexes = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            final int tag = input.readUnsignedByte();
+            switch (tag) {
+                case ClassFiles.CONSTANT_UTF8:
+                    utf8s[i] = input.readUTF();
+                    break;
+                case ClassFiles.CONSTANT_CLASS:
+                    classNameIndexes[i] = input.readUnsignedShort();
+                    break;
+                case ClassFiles.CONSTANT_STRING:
+                case ClassFiles.CONSTANT_METHOD_TYPE:
+                case ClassFiles.CONSTANT_MODULE:
+                case ClassFiles.CONSTANT_PACKAGE:
+                    input.skipBytes(2);
+                    break;
+                case ClassFiles.CONSTANT_METHOD_HANDLE:
+                    input.skipBytes(3);
+                    break;
+                case ClassFiles.CONSTANT_INTEGER:
+                case ClassFiles.CONSTANT_FLOAT:
+                case ClassFiles.CONSTANT_FIELDREF:
+                case ClassFiles.CONSTANT_METHODREF:
+                case ClassFiles.CONSTANT_INTERFACE_METHODREF:
+                case ClassFiles.CONSTANT_NAME_AND_TYPE:
+                case ClassFiles.CONSTANT_DYNAMIC:
+                case ClassFiles.CONSTANT_INVOKE_DYNAMIC:
+                    input.skipBytes(4);
+                    break;
+                case ClassFiles.CONSTANT_LONG:
+                case ClassFiles.CONSTANT_DOUBLE:
+                    input.skipBytes(8);
+                    //8 bytes constants take two entries.
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag <"+tag+"> at <"+i+">");
+            }
+        }
+
+        //access flags
+        input.skipBytes(2);
+        final String name = ClassFiles.className(utf8s, classNameIndexes, input.readUnsignedShort());
+        final int superIndex = input.readUnsignedShort();
+        final String superName = superIndex == 0 ? null : ClassFiles.className(utf8s, classNameIndexes, superIndex);
+        final int interfacesCount = input.readUnsignedShort();
+        input.skipBytes(2 * interfacesCount);
+        ClassFiles.skipMembers(input);
+        ClassFiles.skipMembers(input);
+
+        final Set<String> annotationTypes = new HashSet<String>();
+        final int attributesCount = input.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            final String attributeName = utf8s[input.readUnsignedShort()];
+            final int length = input.readInt();
+            if (ClassFiles.RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                final int annotationsCount = input.readUnsignedShort();
+                for (int j = 0; j < annotationsCount; j++) {
+                    annotationTypes.add(ClassFiles.descriptorToName(utf8s[input.readUnsignedShort()]));
+                    ClassFiles.skipElementValuePairs(input);
+                }
+            } else {
+                input.skipBytes(length);
+            }
+        }
+        return new ClassInfo(name, superName, annotationTypes);
+    }
+
+    private static String className(final String[] utf8s, final int[] classNameIndexes, final int classIndex) {
+        return utf8s[classNameIndexes[classIndex]].replace('/', '.');
+    }
+
+    /**
+     * @param descriptor e.g. `Lorg/mule/api/annotations/Module;`
+     * @return binary name e.g. `org.mule.api.annotations.Module`
+     */
+    private static String descriptorToName(final String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /**
+     * Skip fields or methods.
+     */
+    private static void skipMembers(final DataInputStream input) throws IOException {
+        final int count = input.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            //access flags, name and descriptor
+            input.skipBytes(6);
+            ClassFiles.skipAttributes(input);
+        }
+    }
+
+    private static void skipAttributes(final DataInputStream input) throws IOException {
+        final int count = input.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            input.skipBytes(2);
+            input.skipBytes(input.readInt());
+        }
+    }
+
+    private static void skipElementValuePairs(final DataInputStream input) throws IOException {
+        final int count = input.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            input.skipBytes(2);
+            ClassFiles.skipElementValue(input);
+        }
+    }
+
+    private static void skipElementValue(final DataInputStream input) throws IOException {
+        final int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                input.skipBytes(4);
+                break;
+            case '@':
+                input.skipBytes(2);
+                ClassFiles.skipElementValuePairs(input);
+                break;
+            case '[':
+                final int count = input.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    ClassFiles.skipElementValue(input);
+                }
+                break;
+            default:
+                //Constants and class: a single constant pool index
+                input.skipBytes(2);
+                break;
+        }
+    }
+
+}
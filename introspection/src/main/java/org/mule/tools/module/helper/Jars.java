@@ -18,36 +18,78 @@
 
 package org.mule.tools.module.helper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
+import javax.annotation.Nullable;
 
 /**
  * Helper methods for jar files.
+ * <br />
+ * Local jars are accessed through {@link ZipFile} hence their central directory: listing entries does not inflate them and a single entry can be read without scanning the whole jar.
  */
 public final class Jars {
 
+    private static final String FILE_PROTOCOL = "file";
+
     private Jars() {
     }
 
+    /**
+     * @param url
+     * @return a {@link ZipFile} for `url`; to be closed by caller
+     * @throws IOException
+     * @throws IllegalArgumentException if `url` is not a local file
+     */
+    public static ZipFile open(final URL url) throws IOException {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+        if (!Jars.FILE_PROTOCOL.equals(url.getProtocol())) {
+            throw new IllegalArgumentException("<"+url+"> is not a local file");
+        }
+
+        try {
+            return new ZipFile(new File(url.toURI()));
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     /**
      * @param url
      * @return all {@link File} names contained in specified jar
      * @throws IOException 
      */
     public static List<String> allFileNames(final URL url) throws IOException {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+
+        if (Jars.FILE_PROTOCOL.equals(url.getProtocol())) {
+            final ZipFile zip = Jars.open(url);
+            try {
+                return Jars.allFileNames(zip);
+            } finally {
+                zip.close();
+            }
+        }
+
+        //Remote jars can only be streamed.
         final ZipInputStream jarStream = new ZipInputStream(url.openStream());
         try {
             ZipEntry entry = null;
-            final List<String> allNames = new LinkedList<String>();
+            final List<String> allNames = new ArrayList<String>();
             while((entry = jarStream.getNextEntry()) != null) {
                 allNames.add(entry.getName());
             }
@@ -57,38 +99,85 @@ public final class Jars {
         }
     }
 
-    public static File load(final URL url, final String regex) throws IOException, URISyntaxException {
-        if (url == null) {
-            throw new IllegalArgumentException("null url");
+    /**
+     * @param zip
+     * @return all {@link File} names contained in specified jar
+     */
+    public static List<String> allFileNames(final ZipFile zip) {
+        if (zip == null) {
+            throw new IllegalArgumentException("null zip");
+        }
+
+        final List<String> allNames = new ArrayList<String>(zip.size());
+        final Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            allNames.add(entries.nextElement().getName());
+        }
+        return allNames;
+    }
+
+    /**
+     * @param zip
+     * @param regex
+     * @return content of first entry whose name matches `regex`, null if none
+     * @throws IOException
+     */
+    @Nullable
+    public static byte[] read(final ZipFile zip, final String regex) throws IOException {
+        if (zip == null) {
+            throw new IllegalArgumentException("null zip");
         }
         if (regex == null) {
             throw new IllegalArgumentException("null regex");
         }
 
-        final ZipInputStream jarStream = new ZipInputStream(url.openStream());
+        final Pattern pattern = Pattern.compile(regex);
+        final Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            if (pattern.matcher(entry.getName()).matches()) {
+                return Jars.read(zip, entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param zip
+     * @param entry
+     * @return content of `entry`
+     * @throws IOException
+     */
+    public static byte[] read(final ZipFile zip, final ZipEntry entry) throws IOException {
+        final InputStream inputStream = zip.getInputStream(entry);
         try {
-            ZipEntry entry = null;
-            while((entry = jarStream.getNextEntry()) != null) {
-                final String name = entry.getName();
-                if (name.matches(regex)) {
-                    final ZipFile zip = new ZipFile(new File(url.toURI()));
-                    final InputStream inputStream = zip.getInputStream(entry);
-                    final File file = File.createTempFile("pom", ".temp");
-                    final FileOutputStream outputStream = new FileOutputStream(file);
-                    final byte[] buffer = new byte[1024];
-                    int n;
-                    while ((n = inputStream.read(buffer, 0, 1024)) > -1) {
-                        outputStream.write(buffer, 0, n);
-                    }
-                    outputStream.close();
-                    inputStream.close();
-                    return file;
-                }
+            final long size = entry.getSize();
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(size > 0 && size < Integer.MAX_VALUE ? (int) size : 8192);
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = inputStream.read(buffer)) > -1) {
+                outputStream.write(buffer, 0, n);
             }
-            return null;
+            return outputStream.toByteArray();
         } finally {
-            jarStream.close();
+            inputStream.close();
+        }
+    }
+
+    /**
+     * @param url
+     * @param regex
+     * @return content of first entry whose name matches `regex`, null if none
+     * @throws IOException
+     */
+    @Nullable
+    public static byte[] read(final URL url, final String regex) throws IOException {
+        final ZipFile zip = Jars.open(url);
+        try {
+            return Jars.read(zip, regex);
+        } finally {
+            zip.close();
         }
     }
 
-}
\ No newline at end of file
+}
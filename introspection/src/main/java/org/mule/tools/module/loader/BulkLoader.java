@@ -0,0 +1,181 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.loader;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load many modules concurrently using a {@link JarLoader}.
+ * <br />
+ * Each module is loaded by its own task, with its own {@link ClassLoader}. Results are reported as soon as they are available:
+ * a failing or slow module does not prevent others from being reported.
+ */
+public class BulkLoader {
+
+    /**
+     * Receives outcome of each module load. Always called by the thread calling {@link BulkLoader#loadAll(java.util.List, org.mule.tools.module.loader.BulkLoader.Callback)}, one call at a time.
+     */
+    public interface Callback {
+
+        void onLoaded(List<URL> urls, org.mule.tools.module.model.Package module);
+
+        void onFailure(List<URL> urls, Throwable throwable);
+
+    }
+
+    /**
+     * Outcome of a single load: either a {@link org.mule.tools.module.model.Package} or a failure.
+     */
+    private static final class Outcome {
+
+        private final List<URL> urls;
+        private final org.mule.tools.module.model.Package module;
+        private final Throwable failure;
+
+        private Outcome(final List<URL> urls, final org.mule.tools.module.model.Package module, final Throwable failure) {
+            this.urls = urls;
+            this.module = module;
+            this.failure = failure;
+        }
+
+    }
+
+    private final JarLoader jarLoader;
+    private final int parallelism;
+
+    public BulkLoader(final JarLoader jarLoader) {
+        this(jarLoader, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param jarLoader
+     * @param parallelism maximum number of modules loaded concurrently
+     */
+    public BulkLoader(final JarLoader jarLoader, final int parallelism) {
+        if (jarLoader == null) {
+            throw new IllegalArgumentException("null jarLoader");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+
+        this.jarLoader = jarLoader;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Load all `artifacts` using a dedicated pool of {@link #getParallelism()} threads.
+     * @param artifacts list of module jar plus dependencies URLs, as expected by {@link JarLoader#load(java.util.List)}
+     * @param callback
+     * @return number of failed loads
+     * @throws InterruptedException
+     */
+    public final int loadAll(final List<List<URL>> artifacts, final Callback callback) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, Math.max(1, artifacts.size())), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("bulk-loader-%d").build());
+        try {
+            return loadAll(artifacts, callback, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Load all `artifacts` using `executor`. Blocks until all modules are loaded or failed.
+     * <br />
+     * If interrupted, pending loads are cancelled.
+     * @param artifacts list of module jar plus dependencies URLs, as expected by {@link JarLoader#load(java.util.List)}
+     * @param callback
+     * @param executor
+     * @return number of failed loads
+     * @throws InterruptedException
+     */
+    public final int loadAll(final List<List<URL>> artifacts, final Callback callback, final ExecutorService executor) throws InterruptedException {
+        if (artifacts == null) {
+            throw new IllegalArgumentException("null artifacts");
+        }
+        if (callback == null) {
+            throw new IllegalArgumentException("null callback");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+
+        final CompletionService<Outcome> completionService = new ExecutorCompletionService<Outcome>(executor);
+        final List<Future<Outcome>> futures = new ArrayList<Future<Outcome>>(artifacts.size());
+        try {
+            for (final List<URL> urls : artifacts) {
+                futures.add(completionService.submit(new Callable<Outcome>() {
+                    @Override
+                    public Outcome call() {
+                        try {
+                            return new Outcome(urls, BulkLoader.this.jarLoader.load(urls), null);
+                        } catch (Throwable t) {
+                            //Class loading issues surface as Errors: report them as any other failure.
+                            return new Outcome(urls, null, t);
+                        }
+                    }
+                }));
+            }
+
+            int failures = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                final Outcome outcome;
+                try {
+                    outcome = completionService.take().get();
+                } catch (ExecutionException e) {
+                    //Not expected as tasks catch everything.
+                    throw new RuntimeException(e.getCause());
+                }
+                if (outcome.failure == null) {
+                    callback.onLoaded(outcome.urls, outcome.module);
+                } else {
+                    failures++;
+                    callback.onFailure(outcome.urls, outcome.failure);
+                }
+            }
+            return failures;
+        } finally {
+            //No-op for completed tasks; cancels pending ones on interruption or callback failure.
+            for (final Future<Outcome> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    public final int getParallelism() {
+        return this.parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return "parallelism: <"+this.parallelism+">";
+    }
+
+}
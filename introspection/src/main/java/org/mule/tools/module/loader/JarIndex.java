@@ -0,0 +1,159 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.loader;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Everything {@link JarLoader} needs from a module jar before loading classes: entry names, candidate module classes, the module class to load and pom.xml details.
+ *
+ * @see JarIndexCache
+ */
+@Immutable
+public final class JarIndex {
+
+    private final List<String> entryNames;
+    private final List<String> potentialModuleClassNames;
+    private final String moduleClassSimpleName;
+    private final String moduleClassName;
+    private final String devkitVersion;
+    private final String scmUrl;
+
+    /**
+     * @param entryNames
+     * @param potentialModuleClassNames
+     * @param moduleClassSimpleName simple name of the class annotated as module
+     * @param moduleClassName name of the most specific sub class of module class, the one to be loaded
+     * @param devkitVersion
+     * @param scmUrl
+     */
+    public JarIndex(final List<String> entryNames, final List<String> potentialModuleClassNames, final String moduleClassSimpleName, final String moduleClassName, final String devkitVersion, @Nullable final String scmUrl) {
+        if (entryNames == null) {
+            throw new IllegalArgumentException("null entryNames");
+        }
+        if (potentialModuleClassNames == null) {
+            throw new IllegalArgumentException("null potentialModuleClassNames");
+        }
+        if (moduleClassSimpleName == null) {
+            throw new IllegalArgumentException("null moduleClassSimpleName");
+        }
+        if (moduleClassName == null) {
+            throw new IllegalArgumentException("null moduleClassName");
+        }
+        if (devkitVersion == null) {
+            throw new IllegalArgumentException("null devkitVersion");
+        }
+
+        this.entryNames = Collections.unmodifiableList(new ArrayList<String>(entryNames));
+        this.potentialModuleClassNames = Collections.unmodifiableList(new ArrayList<String>(potentialModuleClassNames));
+        this.moduleClassSimpleName = moduleClassSimpleName;
+        this.moduleClassName = moduleClassName;
+        this.devkitVersion = devkitVersion;
+        this.scmUrl = scmUrl;
+    }
+
+    private static void writeStrings(final DataOutput output, final List<String> strings) throws IOException {
+        output.writeInt(strings.size());
+        for (final String string : strings) {
+            output.writeUTF(string);
+        }
+    }
+
+    private static List<String> readStrings(final DataInput input) throws IOException {
+        final int size = input.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid size <"+size+">");
+        }
+        final List<String> strings = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(input.readUTF());
+        }
+        return strings;
+    }
+
+    /**
+     * @param output
+     * @throws IOException
+     * @see #readFrom(java.io.DataInput)
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        JarIndex.writeStrings(output, this.entryNames);
+        JarIndex.writeStrings(output, this.potentialModuleClassNames);
+        output.writeUTF(this.moduleClassSimpleName);
+        output.writeUTF(this.moduleClassName);
+        output.writeUTF(this.devkitVersion);
+        output.writeBoolean(this.scmUrl != null);
+        if (this.scmUrl != null) {
+            output.writeUTF(this.scmUrl);
+        }
+    }
+
+    /**
+     * @param input
+     * @return a {@link JarIndex} previously written using {@link #writeTo(java.io.DataOutput)}
+     * @throws IOException
+     */
+    public static JarIndex readFrom(final DataInput input) throws IOException {
+        final List<String> entryNames = JarIndex.readStrings(input);
+        final List<String> potentialModuleClassNames = JarIndex.readStrings(input);
+        final String moduleClassSimpleName = input.readUTF();
+        final String moduleClassName = input.readUTF();
+        final String devkitVersion = input.readUTF();
+        final String scmUrl = input.readBoolean() ? input.readUTF() : null;
+        return new JarIndex(entryNames, potentialModuleClassNames, moduleClassSimpleName, moduleClassName, devkitVersion, scmUrl);
+    }
+
+    public List<String> getEntryNames() {
+        return this.entryNames;
+    }
+
+    public List<String> getPotentialModuleClassNames() {
+        return this.potentialModuleClassNames;
+    }
+
+    public String getModuleClassSimpleName() {
+        return this.moduleClassSimpleName;
+    }
+
+    public String getModuleClassName() {
+        return this.moduleClassName;
+    }
+
+    public String getDevkitVersion() {
+        return this.devkitVersion;
+    }
+
+    @Nullable
+    public String getScmUrl() {
+        return this.scmUrl;
+    }
+
+    @Override
+    public String toString() {
+        return "entries: <"+this.entryNames.size()+"> potentialModuleClassNames: <"+this.potentialModuleClassNames+"> moduleClassName: <"+this.moduleClassName+"> devkitVersion: <"+this.devkitVersion+"> scmUrl: <"+this.scmUrl+">";
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.helper.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of {@link JarIndex}es, one file per jar in a dedicated directory.
+ * <br />
+ * An entry is valid as long as its jar path, size and last modification time are unchanged.
+ * When `verifyDigest` is set the SHA-1 of the jar content must also match: safer, but the jar is then fully read on each lookup.
+ * Unreadable entries are ignored and overwritten.
+ */
+public class JarIndexCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JarIndexCache.class.getPackage().getName());
+
+    private static final int MAGIC = 0x4A494458;
+    private static final int VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".index";
+
+    private final File directory;
+    private final boolean verifyDigest;
+
+    public JarIndexCache(final File directory) {
+        this(directory, false);
+    }
+
+    /**
+     * @param directory where entries are stored; created if needed
+     * @param verifyDigest if true, entries are also validated against jar content SHA-1
+     */
+    public JarIndexCache(final File directory, final boolean verifyDigest) {
+        if (directory == null) {
+            throw new IllegalArgumentException("null directory");
+        }
+
+        this.directory = directory;
+        this.verifyDigest = verifyDigest;
+    }
+
+    /**
+     * @param file
+     * @return SHA-1 of `file` content
+     * @throws IOException
+     */
+    public static String digest(final File file) throws IOException {
+        return Files.digest(file);
+    }
+
+    private String path(final File jar) throws IOException {
+        return jar.getCanonicalPath();
+    }
+
+    /**
+     * @param path
+     * @return file storing entry of jar at `path`, named after `path` SHA-1
+     */
+    private File entryFile(final String path) {
+        return new File(this.directory, Files.digest(path)+JarIndexCache.ENTRY_SUFFIX);
+    }
+
+    /**
+     * @param jar
+     * @return cached {@link JarIndex} of `jar` if still valid, null otherwise
+     * @throws IOException
+     */
+    @Nullable
+    public final JarIndex get(final File jar) throws IOException {
+        if (jar == null) {
+            throw new IllegalArgumentException("null jar");
+        }
+
+        final String path = path(jar);
+        final File entryFile = entryFile(path);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)));
+        try {
+            if (input.readInt() != JarIndexCache.MAGIC || input.readInt() != JarIndexCache.VERSION) {
+                return null;
+            }
+            if (!path.equals(input.readUTF()) || input.readLong() != jar.length() || input.readLong() != jar.lastModified()) {
+                return null;
+            }
+            final String digest = input.readUTF();
+            if (this.verifyDigest && !digest.equals(JarIndexCache.digest(jar))) {
+                return null;
+            }
+            return JarIndex.readFrom(input);
+        } catch (IOException e) {
+            if (JarIndexCache.LOGGER.isWarnEnabled()) {
+                JarIndexCache.LOGGER.warn("Ignoring unreadable index <"+entryFile+"> for <"+path+">", e);
+            }
+            return null;
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Store `index` for `jar`, replacing any previous entry.
+     * <br />
+     * `length`, `lastModified` and `digest` must be captured before `index` is created so that a concurrent modification of `jar` invalidates the entry.
+     * @param jar
+     * @param length of `jar` before it was indexed
+     * @param lastModified of `jar` before it was indexed
+     * @param digest of `jar` before it was indexed, see {@link #digest(java.io.File)}; only needed if {@link #isVerifyDigest()}
+     * @param index
+     * @throws IOException
+     */
+    public final void put(final File jar, final long length, final long lastModified, @Nullable final String digest, final JarIndex index) throws IOException {
+        if (jar == null) {
+            throw new IllegalArgumentException("null jar");
+        }
+        if (this.verifyDigest && digest == null) {
+            throw new IllegalArgumentException("null digest");
+        }
+        if (index == null) {
+            throw new IllegalArgumentException("null index");
+        }
+
+        final String path = path(jar);
+        final File entryFile = entryFile(path);
+        final File temporaryFile = Files.createTemporaryFile(entryFile);
+        try {
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            try {
+                output.writeInt(JarIndexCache.MAGIC);
+                output.writeInt(JarIndexCache.VERSION);
+                output.writeUTF(path);
+                output.writeLong(length);
+                output.writeLong(lastModified);
+                //Entries stored without digest never validate when verifying.
+                output.writeUTF(digest != null ? digest : "");
+                index.writeTo(output);
+            } finally {
+                output.close();
+            }
+            Files.replace(temporaryFile, entryFile);
+        } finally {
+            temporaryFile.delete();
+        }
+    }
+
+    public final File getDirectory() {
+        return this.directory;
+    }
+
+    public final boolean isVerifyDigest() {
+        return this.verifyDigest;
+    }
+
+    @Override
+    public String toString() {
+        return "directory: <"+this.directory+"> verifyDigest: <"+this.verifyDigest+">";
+    }
+
+}
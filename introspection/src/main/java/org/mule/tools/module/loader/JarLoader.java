@@ -20,12 +20,16 @@ package org.mule.tools.module.loader;
 
 import com.google.common.base.CaseFormat;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import javax.annotation.Nullable;
 import javax.xml.xpath.XPathExpressionException;
 
@@ -45,6 +49,20 @@ public class JarLoader {
     private static final String MODULE_CLASS_SUFFIX = "Module";
     private static final String CONNECTOR_CLASS_SUFFIX = "Connector";
     private static final String CONNECTION_MANAGER_CLASS_SUFFIX = "ConnectionManager";
+    private static final String POM_REGEX = "META-INF/maven/.*/pom.xml";
+
+    private final JarIndexCache indexCache;
+
+    public JarLoader() {
+        this(null);
+    }
+
+    /**
+     * @param indexCache if not null, {@link JarIndex}es of module jars are cached there so that repeated loads skip scanning jars
+     */
+    public JarLoader(@Nullable final JarIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
 
     /**
      * @param fileNames
@@ -105,6 +123,101 @@ public class JarLoader {
         return null;
     }
 
+    /**
+     * @param className
+     * @param zip
+     * @param classInfos already parsed {@link ClassFiles.ClassInfo}s, updated with parsed ones; null value for classes not in `zip`
+     * @return {@link ClassFiles.ClassInfo} for `className` if in `zip`, null otherwise
+     * @throws IOException
+     */
+    @Nullable
+    protected final ClassFiles.ClassInfo classInfo(final String className, final ZipFile zip, final Map<String, ClassFiles.ClassInfo> classInfos) throws IOException {
+        if (classInfos.containsKey(className)) {
+            return classInfos.get(className);
+        }
+
+        final ZipEntry entry = zip.getEntry(className.replace('.', '/')+".class");
+        final ClassFiles.ClassInfo classInfo = entry != null ? ClassFiles.parse(Jars.read(zip, entry)) : null;
+        classInfos.put(className, classInfo);
+        return classInfo;
+    }
+
+    /**
+     * @param potentialModuleClassNames
+     * @param zip
+     * @param classInfos
+     * @return first module found among `potentialModuleClassNames`, without loading it
+     * @throws IOException
+     */
+    @Nullable
+    protected final ClassFiles.ClassInfo findModuleClassInfo(final List<String> potentialModuleClassNames, final ZipFile zip, final Map<String, ClassFiles.ClassInfo> classInfos) throws IOException {
+        for (final String potentialModuleClassName : potentialModuleClassNames) {
+            final String className = extractClassName(potentialModuleClassName);
+            final ClassFiles.ClassInfo classInfo = classInfo(className, zip, classInfos);
+            if (classInfo == null) {
+                throw new IllegalArgumentException("Failed to read <"+className+">");
+            }
+
+            if (!classInfo.isAnnotatedWith(Annotations.MODULE_ANNOTATION_CLASS_NAME) &&
+                !classInfo.isAnnotatedWith(Annotations.CONNECTOR_ANNOTATION_CLASS_NAME)) {
+                if (JarLoader.LOGGER.isWarnEnabled()) {
+                    JarLoader.LOGGER.warn("Skipping invalid module <"+className+">");
+                }
+
+                continue;
+            }
+
+            return classInfo;
+        }
+        return null;
+    }
+
+    /**
+     * @param classInfo
+     * @param zip
+     * @param classInfos
+     * @return names of `classInfo` super classes found in `zip`, closest first
+     * @throws IOException
+     */
+    protected final List<String> superClassNames(final ClassFiles.ClassInfo classInfo, final ZipFile zip, final Map<String, ClassFiles.ClassInfo> classInfos) throws IOException {
+        final List<String> superClassNames = new LinkedList<String>();
+        ClassFiles.ClassInfo current = classInfo;
+        while (current.getSuperName() != null) {
+            superClassNames.add(current.getSuperName());
+            current = classInfo(current.getSuperName(), zip, classInfos);
+            if (current == null) {
+                break;
+            }
+        }
+        return superClassNames;
+    }
+
+    /**
+     * @param moduleClassInfo
+     * @param fileNames
+     * @param zip
+     * @param classInfos
+     * @return name of the {@link Module} sub class having the biggest number of parent classes, without loading any class
+     * @throws IOException
+     */
+    @Nullable
+    protected final String findMostSpecificSubClassName(final ClassFiles.ClassInfo moduleClassInfo, final List<String> fileNames, final ZipFile zip, final Map<String, ClassFiles.ClassInfo> classInfos) throws IOException {
+        String mostSpecificSubClassName = null;
+        int mostSpecificDepth = -1;
+        for (final String fileName : fileNames) {
+            if (fileName.endsWith(".class") && fileName.contains(moduleClassInfo.getSimpleName())) {
+                final ClassFiles.ClassInfo classInfo = classInfo(extractClassName(fileName), zip, classInfos);
+                final List<String> superClassNames = superClassNames(classInfo, zip, classInfos);
+                //Ensures this is effectively a module subclass
+                if (superClassNames.contains(moduleClassInfo.getName()) && superClassNames.size() > mostSpecificDepth) {
+                    mostSpecificSubClassName = classInfo.getName();
+                    mostSpecificDepth = superClassNames.size();
+                }
+            }
+        }
+        return mostSpecificSubClassName;
+    }
+
     /**
      * @param moduleSubClasses
      * @return {@link Class} among specified classes having biggest number of parent {@link Class}es
@@ -113,7 +226,7 @@ public class JarLoader {
         return Collections.max(moduleSubClasses, new Comparator<Class<?>>() {
             @Override
             public int compare(final Class<?> class1, final Class<?> class2) {
-                return Integer.valueOf(Classes.allSuperClasses(class1).size()).compareTo(Classes.allSuperClasses(class2).size());
+                return Integer.valueOf(Classes.hierarchyDepth(class1)).compareTo(Classes.hierarchyDepth(class2));
             }
         });
     }
@@ -181,6 +294,100 @@ public class JarLoader {
         }
     }
 
+    /**
+     * Scan `moduleJar` entries, class files and pom.xml.
+     * @param moduleJar
+     * @return a new {@link JarIndex} for `moduleJar`
+     * @throws IOException
+     */
+    protected final JarIndex createIndex(final URL moduleJar) throws IOException {
+        //Open jar once: entries are listed from its central directory, class files and pom.xml are parsed from memory.
+        final ZipFile zip = Jars.open(moduleJar);
+        final List<String> allFileNames;
+        final List<String> potentialModuleClassNames;
+        final ClassFiles.ClassInfo moduleClassInfo;
+        final String mostSpecificSubClassName;
+        final byte[] pom;
+        try {
+            allFileNames = Jars.allFileNames(zip);
+            potentialModuleClassNames = findPotentialModuleClassNames(allFileNames);
+            if (potentialModuleClassNames.isEmpty()) {
+                throw new IllegalArgumentException("Failed to find potential Module class among <"+allFileNames+">");
+            }
+
+            //Read class files so that only the chosen class is loaded.
+            final Map<String, ClassFiles.ClassInfo> classInfos = new HashMap<String, ClassFiles.ClassInfo>();
+            moduleClassInfo = findModuleClassInfo(potentialModuleClassNames, zip, classInfos);
+            if (moduleClassInfo == null) {
+                throw new IllegalArgumentException("Failed to find Module class in <"+potentialModuleClassNames+"> ");
+            }
+            mostSpecificSubClassName = findMostSpecificSubClassName(moduleClassInfo, allFileNames, zip, classInfos);
+            if (mostSpecificSubClassName == null) {
+                throw new IllegalArgumentException("Failed to find subclasses for Module <"+moduleClassInfo.getSimpleName()+">");
+            }
+            pom = Jars.read(zip, JarLoader.POM_REGEX);
+        } finally {
+            zip.close();
+        }
+        if (pom == null) {
+            throw new IllegalArgumentException("Failed to find pom.xml in <"+moduleJar+">");
+        }
+
+        final String devkitVersion;
+        final String scmUrl;
+        try {
+            final Document document = XML.load(new ByteArrayInputStream(pom), moduleJar.toString());
+            final List<String> scmUrls = XML.extract(document, "/project/scm/url");
+            devkitVersion = extractDevkitVersion(document);
+            if (!scmUrls.isEmpty()) {
+                scmUrl = scmUrls.get(0);
+            } else {
+                scmUrl = null;
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return new JarIndex(allFileNames, potentialModuleClassNames, moduleClassInfo.getSimpleName(), mostSpecificSubClassName, devkitVersion, scmUrl);
+    }
+
+    /**
+     * @param moduleJar
+     * @return {@link JarIndex} for `moduleJar`, from {@link JarIndexCache} if available
+     * @throws IOException
+     */
+    protected final JarIndex index(final URL moduleJar) throws IOException {
+        if (this.indexCache == null || !"file".equals(moduleJar.getProtocol())) {
+            return createIndex(moduleJar);
+        }
+
+        final File file;
+        try {
+            file = new File(moduleJar.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        final JarIndex cachedIndex = this.indexCache.get(file);
+        if (cachedIndex != null) {
+            return cachedIndex;
+        }
+
+        //Captured before scanning so that a concurrent modification invalidates the entry.
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final String digest = this.indexCache.isVerifyDigest() ? JarIndexCache.digest(file) : null;
+        final JarIndex index = createIndex(moduleJar);
+        try {
+            this.indexCache.put(file, length, lastModified, digest, index);
+        } catch (IOException e) {
+            if (JarLoader.LOGGER.isWarnEnabled()) {
+                JarLoader.LOGGER.warn("Failed to cache index of <"+moduleJar+">", e);
+            }
+        }
+        return index;
+    }
+
     /**
      * @param urls
      * @return a {@link Module} representation of first module found in specified `urls`
@@ -188,55 +395,25 @@ public class JarLoader {
      */
     public final org.mule.tools.module.model.Package load(final List<URL> urls) throws IOException {
         final URL moduleJar = urls.get(0);
-        final List<String> allFileNames = Jars.allFileNames(moduleJar);
+        //On JarIndexCache hit module jar is not opened at all.
+        final JarIndex index = index(moduleJar);
         final ClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]));
         final ClassLoader currentClassLoader = Thread.currentThread().getContextClassLoader();
         Thread.currentThread().setContextClassLoader(classLoader);
         try {
-            final List<String> potentialModuleClassNames = findPotentialModuleClassNames(allFileNames);
-            if (potentialModuleClassNames.isEmpty()) {
-                throw new IllegalArgumentException("Failed to find potential Module class among <"+allFileNames+">");
+            final String moduleClassSimpleName = index.getModuleClassSimpleName();
+            final String mostSpecificSubClassName = index.getModuleClassName();
+            final Class<?> mostSpecificSubClass = Classes.loadClass(classLoader, mostSpecificSubClassName);
+            if (mostSpecificSubClass == null) {
+                throw new IllegalArgumentException("Failed to load <"+mostSpecificSubClassName+">");
             }
-            final Class<?> moduleClass = findModuleClass(potentialModuleClassNames, classLoader);
-            if (moduleClass == null) {
-                throw new IllegalArgumentException("Failed to find Module class in <"+potentialModuleClassNames+"> ");
-            }
-
-            final List<Class<?>> moduleSubClasses = findModuleSubClasses(moduleClass, allFileNames, classLoader);
-            if (moduleSubClasses.isEmpty()) {
-                throw new IllegalArgumentException("Failed to find subclasses for Module <"+moduleClass.getSimpleName()+">");
-            }
-
-            final Class<?> mostSpecificSubClass = findMostSpecificSubClass(moduleSubClasses);
             final Object moduleObject = Classes.newInstance(mostSpecificSubClass);
             if (moduleObject == null) {
-                throw new IllegalArgumentException("Failed to instantiate Module class <"+moduleClass.getSimpleName()+">");
-            }
-            final String devkitVersion;
-            final String scmUrl;
-            try {
-                final File pom = Jars.load(moduleJar, "META-INF/maven/.*/pom.xml");
-                if (pom == null) {
-                   throw new IllegalArgumentException("Failed to find pom.xml.");
-                }
-                try {
-                    final Document document = XML.load(pom);
-                    final List<String> scmUrls = XML.extract(document, "/project/scm/url");
-                    devkitVersion = extractDevkitVersion(document);
-                    if (!urls.isEmpty()) {
-                        scmUrl = scmUrls.get(0);
-                    } else {
-                        scmUrl = null;
-                    }
-                } finally {
-                    pom.delete();
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+                throw new IllegalArgumentException("Failed to instantiate Module class <"+moduleClassSimpleName+">");
             }
-            final Loader loader = getLoader(devkitVersion);
-            final Module module = loader.load(mostSpecificSubClass, extractConnectionManagerClassName(mostSpecificSubClass.getPackage().getName(), moduleClass.getSimpleName(), moduleObject));
-            final Repository repository = getRepository(scmUrl);
+            final Loader loader = getLoader(index.getDevkitVersion());
+            final Module module = loader.load(mostSpecificSubClass, extractConnectionManagerClassName(mostSpecificSubClass.getPackage().getName(), moduleClassSimpleName, moduleObject));
+            final Repository repository = getRepository(index.getScmUrl());
             final Metadata metadata = repository != null ? extractMetadata(repository, mostSpecificSubClass, module) : null;
             return new org.mule.tools.module.model.Package(module, metadata);
         } finally {
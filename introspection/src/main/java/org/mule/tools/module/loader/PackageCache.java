@@ -0,0 +1,242 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.helper.Files;
+import org.mule.tools.module.model.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of {@link org.mule.tools.module.model.Package}s keyed by artifact coordinates and module jar digest, one file per artifact.
+ * <br />
+ * Models are stored using {@link Serialization}: a cache hit neither instantiates the module class nor accesses its {@link org.mule.tools.module.loader.repository.Repository}.
+ * Module jar size and last modification time are stored along its digest so that warm loads do not hash jar content.
+ * Types are only loaded when first accessed.
+ */
+public class PackageCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackageCache.class.getPackage().getName());
+
+    private static final int MAGIC = 0x50434B43;
+    private static final int VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".model";
+
+    private final File directory;
+
+    /**
+     * @param directory where entries are stored; created if needed
+     */
+    public PackageCache(final File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("null directory");
+        }
+
+        this.directory = directory;
+    }
+
+    /**
+     * @param coordinates
+     * @return file storing entry of `coordinates`, named after `coordinates` SHA-1
+     */
+    private File entryFile(final String coordinates) {
+        return new File(this.directory, Files.digest(coordinates)+PackageCache.ENTRY_SUFFIX);
+    }
+
+    /**
+     * @param coordinates
+     * @param digest expected module jar digest, ignored if null
+     * @param jar module jar; if not null the entry is valid when `jar` size and last modification time are unchanged, otherwise when `jar` digest is unchanged
+     * @param classLoader
+     * @return cached {@link org.mule.tools.module.model.Package} if valid, null otherwise
+     * @throws IOException
+     */
+    @Nullable
+    private org.mule.tools.module.model.Package read(final String coordinates, @Nullable final String digest, @Nullable final File jar, final ClassLoader classLoader) throws IOException {
+        final File entryFile = entryFile(coordinates);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)));
+        try {
+            if (input.readInt() != PackageCache.MAGIC || input.readInt() != PackageCache.VERSION || !coordinates.equals(input.readUTF())) {
+                return null;
+            }
+            final String cachedDigest = input.readUTF();
+            final long length = input.readLong();
+            final long lastModified = input.readLong();
+            if (digest != null && !digest.equals(cachedDigest)) {
+                return null;
+            }
+            //Only hash jar content if it might have changed.
+            if (jar != null && (length != jar.length() || lastModified != jar.lastModified()) && !cachedDigest.equals(Files.digest(jar))) {
+                return null;
+            }
+            return Serialization.read(input, classLoader);
+        } catch (IOException e) {
+            if (PackageCache.LOGGER.isWarnEnabled()) {
+                PackageCache.LOGGER.warn("Ignoring unreadable model <"+entryFile+"> for <"+coordinates+">", e);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            if (PackageCache.LOGGER.isWarnEnabled()) {
+                PackageCache.LOGGER.warn("Ignoring invalid model <"+entryFile+"> for <"+coordinates+">", e);
+            }
+            return null;
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * @param coordinates e.g. `groupId:artifactId:version`
+     * @param digest of module jar, see {@link Files#digest(java.io.File)}
+     * @param classLoader used to lazily load types
+     * @return cached {@link org.mule.tools.module.model.Package} if `digest` matches, null otherwise
+     * @throws IOException
+     */
+    @Nullable
+    public final org.mule.tools.module.model.Package get(final String coordinates, final String digest, final ClassLoader classLoader) throws IOException {
+        if (coordinates == null) {
+            throw new IllegalArgumentException("null coordinates");
+        }
+        if (digest == null) {
+            throw new IllegalArgumentException("null digest");
+        }
+        if (classLoader == null) {
+            throw new IllegalArgumentException("null classLoader");
+        }
+
+        return read(coordinates, digest, null, classLoader);
+    }
+
+    private void write(final String coordinates, final String digest, final long length, final long lastModified, final org.mule.tools.module.model.Package module) throws IOException {
+        final File entryFile = entryFile(coordinates);
+        final File temporaryFile = Files.createTemporaryFile(entryFile);
+        try {
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            try {
+                output.writeInt(PackageCache.MAGIC);
+                output.writeInt(PackageCache.VERSION);
+                output.writeUTF(coordinates);
+                output.writeUTF(digest);
+                output.writeLong(length);
+                output.writeLong(lastModified);
+                Serialization.write(module, output);
+            } finally {
+                output.close();
+            }
+            Files.replace(temporaryFile, entryFile);
+        } finally {
+            temporaryFile.delete();
+        }
+    }
+
+    /**
+     * Store `module` for `coordinates`, replacing any previous entry.
+     * @param coordinates
+     * @param digest
+     * @param module
+     * @throws IOException
+     */
+    public final void put(final String coordinates, final String digest, final org.mule.tools.module.model.Package module) throws IOException {
+        if (coordinates == null) {
+            throw new IllegalArgumentException("null coordinates");
+        }
+        if (digest == null) {
+            throw new IllegalArgumentException("null digest");
+        }
+        if (module == null) {
+            throw new IllegalArgumentException("null module");
+        }
+
+        //Unknown jar size and last modification time: digest will be checked on load.
+        write(coordinates, digest, -1, -1, module);
+    }
+
+    /**
+     * On cache hit module jar content is only hashed if its size or last modification time changed.
+     * @param jarLoader used on cache miss
+     * @param coordinates
+     * @param urls module jar plus dependencies, as expected by {@link JarLoader#load(java.util.List)}
+     * @return {@link org.mule.tools.module.model.Package} for `urls`, from cache if module jar did not change
+     * @throws IOException
+     */
+    public final org.mule.tools.module.model.Package load(final JarLoader jarLoader, final String coordinates, final List<URL> urls) throws IOException {
+        if (jarLoader == null) {
+            throw new IllegalArgumentException("null jarLoader");
+        }
+        if (coordinates == null) {
+            throw new IllegalArgumentException("null coordinates");
+        }
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("null or empty urls");
+        }
+
+        final File jar;
+        try {
+            jar = new File(urls.get(0).toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        final org.mule.tools.module.model.Package cachedModule = read(coordinates, null, jar, new URLClassLoader(urls.toArray(new URL[urls.size()])));
+        if (cachedModule != null) {
+            return cachedModule;
+        }
+
+        //Captured before hashing so that a concurrent modification invalidates the entry.
+        final long length = jar.length();
+        final long lastModified = jar.lastModified();
+        final String digest = Files.digest(jar);
+        final org.mule.tools.module.model.Package module = jarLoader.load(urls);
+        try {
+            write(coordinates, digest, length, lastModified, module);
+        } catch (IOException e) {
+            if (PackageCache.LOGGER.isWarnEnabled()) {
+                PackageCache.LOGGER.warn("Failed to cache model of <"+coordinates+">", e);
+            }
+        }
+        return module;
+    }
+
+    public final File getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public String toString() {
+        return "directory: <"+this.directory+">";
+    }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassFilesTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Nested {
+        String value();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Complex {
+        Nested nested();
+        Nested[] nesteds();
+        Class<?> type();
+        TimeUnit unit();
+        long[] longs();
+        double value();
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    public @interface Invisible {
+    }
+
+    @Invisible
+    @Complex(nested=@Nested("a"), nesteds={@Nested("b"), @Nested("c")}, type=String.class, unit=TimeUnit.SECONDS, longs={1L, Long.MAX_VALUE}, value=Math.PI)
+    @Deprecated
+    public static abstract class Annotated extends AbstractList<String> implements Serializable {
+
+        public static final long LONG = Long.MIN_VALUE;
+        public static final double DOUBLE = Math.E;
+        public static final String STRING = "string";
+
+        public long sum(final long value, final double other) {
+            return value + (long) other + ClassFilesTest.Annotated.LONG;
+        }
+
+    }
+
+    private static byte[] classFile(final Class<?> clazz) throws IOException {
+        final InputStream input = clazz.getResourceAsStream(clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1)+".class");
+        try {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = input.read(buffer)) > -1) {
+                output.write(buffer, 0, n);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * @param tag of first constant pool entry, followed by 2 bytes
+     * @return a minimal class file `a.B` whose 8 bytes constants come before class names
+     */
+    private static byte[] classFile(final int tag) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0xCAFEBABE);
+        output.writeShort(0);
+        output.writeShort(50);
+        output.writeShort(13);
+        //#1: tag under test, #2: long taking two entries (#2 and #3)
+        output.writeByte(tag);
+        output.writeShort(0);
+        output.writeByte(5);
+        output.writeLong(Long.MAX_VALUE);
+        output.writeByte(1);
+        output.writeUTF("a/B");
+        output.writeByte(7);
+        output.writeShort(4);
+        //#6: double taking two entries (#6 and #7)
+        output.writeByte(6);
+        output.writeDouble(Math.PI);
+        output.writeByte(1);
+        output.writeUTF("java/lang/Object");
+        output.writeByte(7);
+        output.writeShort(8);
+        output.writeByte(1);
+        output.writeUTF("RuntimeVisibleAnnotations");
+        output.writeByte(1);
+        output.writeUTF("La/Annotation;");
+        output.writeByte(1);
+        output.writeUTF("value");
+        //access flags, this, super, interfaces, fields, methods
+        output.writeShort(0x21);
+        output.writeShort(5);
+        output.writeShort(9);
+        output.writeShort(0);
+        output.writeShort(0);
+        output.writeShort(0);
+        //One annotation with a single nested annotation array value.
+        output.writeShort(1);
+        output.writeShort(10);
+        output.writeInt(19);
+        output.writeShort(1);
+        output.writeShort(11);
+        output.writeShort(1);
+        output.writeShort(12);
+        output.writeByte('[');
+        output.writeShort(1);
+        output.writeByte('@');
+        output.writeShort(11);
+        output.writeShort(1);
+        output.writeShort(12);
+        output.writeByte('J');
+        output.writeShort(2);
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void parseCompiledClass() throws IOException {
+        final ClassFiles.ClassInfo classInfo = ClassFiles.parse(ClassFilesTest.classFile(ClassFilesTest.Annotated.class));
+
+        Assert.assertEquals(ClassFilesTest.Annotated.class.getName(), classInfo.getName());
+        Assert.assertEquals(AbstractList.class.getName(), classInfo.getSuperName());
+        Assert.assertEquals(new HashSet<String>(Arrays.asList(ClassFilesTest.Complex.class.getName(), Deprecated.class.getName())), classInfo.getAnnotationTypes());
+        Assert.assertTrue(classInfo.isAnnotatedWith(Deprecated.class.getName()));
+        Assert.assertFalse(classInfo.isAnnotatedWith(ClassFilesTest.Invisible.class.getName()));
+    }
+
+    @Test
+    public void parseTopLevelClass() throws IOException {
+        final ClassFiles.ClassInfo classInfo = ClassFiles.parse(ClassFilesTest.classFile(ClassFilesTest.class));
+
+        Assert.assertEquals("ClassFilesTest", classInfo.getSimpleName());
+        Assert.assertEquals(Object.class.getName(), classInfo.getSuperName());
+        Assert.assertTrue(classInfo.getAnnotationTypes().isEmpty());
+    }
+
+    @Test
+    public void parseWideConstants() throws IOException {
+        final ClassFiles.ClassInfo classInfo = ClassFiles.parse(ClassFilesTest.classFile(8));
+
+        Assert.assertEquals("a.B", classInfo.getName());
+        Assert.assertEquals("B", classInfo.getSimpleName());
+        Assert.assertEquals(Object.class.getName(), classInfo.getSuperName());
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("a.Annotation")), classInfo.getAnnotationTypes());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void unknownConstantPoolTag() throws IOException {
+        ClassFiles.parse(ClassFilesTest.classFile(2));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void invalidMagicNumber() throws IOException {
+        final byte[] bytes = ClassFilesTest.classFile(ClassFilesTest.class);
+        bytes[0] = 0;
+        ClassFiles.parse(bytes);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void truncatedClassFile() throws IOException {
+        final byte[] bytes = ClassFilesTest.classFile(ClassFilesTest.class);
+        ClassFiles.parse(Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+}
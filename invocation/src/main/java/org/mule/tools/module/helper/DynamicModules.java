@@ -0,0 +1,112 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.mule.tools.module.invocation.DynamicModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper methods for {@link DynamicModule}.
+ */
+public final class DynamicModules {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamicModules.class.getPackage().getName());
+
+    private DynamicModules() {
+    }
+
+    /**
+     * Create and initialise {@link DynamicModule}s concurrently on `executor`.
+     * <br />
+     * If any creation fails all successfully created {@link DynamicModule}s are disposed and first failure is propagated.
+     * @param factories each creating a {@link DynamicModule}, possibly lazily
+     * @param executor
+     * @return initialised {@link DynamicModule}s, in `factories` order. Per phase timings are available via {@link DynamicModule#getInitialisationTimings()}.
+     */
+    public static List<DynamicModule> createAll(final List<? extends Callable<? extends DynamicModule>> factories, final ExecutorService executor) {
+        if (factories == null) {
+            throw new IllegalArgumentException("null factories");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+
+        final List<Future<DynamicModule>> futures = new ArrayList<Future<DynamicModule>>(factories.size());
+        for (final Callable<? extends DynamicModule> factory : factories) {
+            futures.add(executor.submit(new Callable<DynamicModule>() {
+                @Override
+                public DynamicModule call() throws Exception {
+                    final DynamicModule dynamicModule = factory.call();
+                    try {
+                        dynamicModule.ensureInitialised();
+                    } catch (RuntimeException e) {
+                        dynamicModule.dispose();
+                        throw e;
+                    }
+                    return dynamicModule;
+                }
+            }));
+        }
+
+        final List<DynamicModule> dynamicModules = new ArrayList<DynamicModule>(factories.size());
+        Throwable failure = null;
+        for (final Future<DynamicModule> future : futures) {
+            try {
+                dynamicModules.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            for (final DynamicModule dynamicModule : dynamicModules) {
+                try {
+                    dynamicModule.dispose();
+                } catch (RuntimeException e) {
+                    if (DynamicModules.LOGGER.isWarnEnabled()) {
+                        DynamicModules.LOGGER.warn("Got exception while disposing <"+dynamicModule+">", e);
+                    }
+                }
+            }
+            throw new RuntimeException("Failed to create all DynamicModules", failure);
+        }
+
+        if (DynamicModules.LOGGER.isInfoEnabled()) {
+            for (final DynamicModule dynamicModule : dynamicModules) {
+                DynamicModules.LOGGER.info("Initialised <"+dynamicModule+"> in <"+dynamicModule.getInitialisationTimings()+">");
+            }
+        }
+        return dynamicModules;
+    }
+
+}
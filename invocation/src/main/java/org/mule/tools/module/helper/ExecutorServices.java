@@ -0,0 +1,82 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.helper;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper methods for {@link java.util.concurrent.ExecutorService}.
+ */
+public final class ExecutorServices {
+
+    /**
+     * Block submitting thread until there is room in the queue.
+     */
+    private static final RejectedExecutionHandler BLOCKING_POLICY = new RejectedExecutionHandler() {
+        @Override
+        public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("<"+executor+"> has been shutdown");
+            }
+
+            try {
+                executor.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(e);
+            }
+        }
+    };
+
+    private ExecutorServices() {
+    }
+
+    /**
+     * Create a {@link ListeningExecutorService} with at most `maxThreads` daemon threads and at most `queueDepth` pending tasks.
+     * When the queue is full submitting threads block until a slot is available, providing backpressure.
+     * @param nameFormat {@link String#format(java.lang.String, java.lang.Object[])} compatible thread name format
+     * @param maxThreads
+     * @param queueDepth
+     * @return a bounded {@link ListeningExecutorService}
+     */
+    public static ListeningExecutorService newBoundedExecutor(final String nameFormat, final int maxThreads, final int queueDepth) {
+        if (nameFormat == null) {
+            throw new IllegalArgumentException("null nameFormat");
+        }
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be > 0");
+        }
+        if (queueDepth <= 0) {
+            throw new IllegalArgumentException("queueDepth must be > 0");
+        }
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueDepth), new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build(), ExecutorServices.BLOCKING_POLICY);
+        executor.allowCoreThreadTimeOut(true);
+        return MoreExecutors.listeningDecorator(executor);
+    }
+
+}
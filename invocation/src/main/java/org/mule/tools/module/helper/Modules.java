@@ -22,6 +22,7 @@ public final class Modules {
 
     private static final String CAPABILITY_CLASS_NAME = "org.mule.api.Capability";
     private static final String LIFECYCLE_CAPABILITY = "LIFECYCLE_CAPABLE";
+    private static final String MODULE_OBJECT_PROPERTY_NAME = "moduleObject";
 
     private Modules() {
     }
@@ -38,4 +39,22 @@ public final class Modules {
         return Modules.isCapableOf(module, Modules.capability(Modules.LIFECYCLE_CAPABILITY));
     }
 
+    /**
+     * Set `moduleObject` on a devkit generated MessageProcessor or MessageSource so that it does not have to look it up in the registry.
+     * @param object
+     * @param moduleObject
+     * @return true if `object` accepts a module object
+     */
+    public static boolean setModuleObject(final Object object, final Object moduleObject) {
+        final String setterMethodName = Reflections.setterMethodName(Modules.MODULE_OBJECT_PROPERTY_NAME);
+        try {
+            object.getClass().getMethod(setterMethodName, Object.class);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        Reflections.invoke(object, setterMethodName, moduleObject, Object.class);
+        return true;
+    }
+
 }
\ No newline at end of file
@@ -39,6 +39,8 @@ import org.mule.tools.module.transformer.StringToURL;
  */
 public final class MuleContexts {
 
+    private static MuleContext sharedMuleContext;
+
     private MuleContexts() {
     }
 
@@ -60,6 +62,19 @@ public final class MuleContexts {
         return context;
     }
 
+    /**
+     * @return a default {@link MuleContext} shared by all callers, lazily created. It is never disposed.
+     * @throws InitialisationException
+     * @throws ConfigurationException
+     * @see #defaultMuleContext()
+     */
+    public static synchronized MuleContext sharedMuleContext() throws InitialisationException, ConfigurationException, MuleException {
+        if (MuleContexts.sharedMuleContext == null) {
+            MuleContexts.sharedMuleContext = MuleContexts.defaultMuleContext();
+        }
+        return MuleContexts.sharedMuleContext;
+    }
+
     public static void inject(final Object object, final MuleContext context) {
         if (object instanceof MuleContextAware) {
             MuleContextAware.class.cast(object).setMuleContext(context);
@@ -44,4 +44,35 @@ public final class Parameters {
         return null;
     }
 
+    /**
+     * @param parameterName
+     * @param type
+     * @param expectedType
+     * @return details about a parameter value of `type` provided where `expectedType` is expected
+     */
+    public static String incorrectTypeDetails(final String parameterName, final Class<?> type, final Class<?> expectedType) {
+        final StringBuilder details = new StringBuilder(parameterName);
+        details.append("(type ").append(type.getCanonicalName()).append(" is not assignable to ").append(expectedType.getCanonicalName()).append(")");
+        return details.toString();
+    }
+
+    /**
+     * @param incorrectParameterTypes
+     * @return exception reporting parameters with incorrect types
+     * @see #incorrectTypeDetails(java.lang.String, java.lang.Class, java.lang.Class)
+     */
+    public static IllegalArgumentException incorrectTypes(final List<String> incorrectParameterTypes) {
+        final String terminaison = incorrectParameterTypes.size()>1?"s":"";
+        return new IllegalArgumentException("Incorrect type"+terminaison+" for parameter"+terminaison+" <"+incorrectParameterTypes+">");
+    }
+
+    /**
+     * @param missingMandatoryParameters
+     * @return exception reporting mandatory parameters without value
+     */
+    public static IllegalArgumentException missingParameters(final List<String> missingMandatoryParameters) {
+        final String terminaison = missingMandatoryParameters.size()>1?"s":"";
+        return new IllegalArgumentException("Value"+terminaison+" for parameter"+terminaison+" <"+missingMandatoryParameters+"> must be provided");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Configuration of {@link BatchingListener}s.
+ * <br />
+ * A batch is delivered as soon as it contains `maxBatchSize` events or its first event has been waiting for `maxLatency` milliseconds.
+ */
+@Immutable
+public final class BatchConfiguration {
+
+    public static final BatchConfiguration DEFAULT = new BatchConfiguration(100, 1000);
+
+    private final int maxBatchSize;
+    private final long maxLatency;
+
+    /**
+     * @param maxBatchSize maximum number of events per batch
+     * @param maxLatency maximum time in milliseconds an event waits before its batch is delivered
+     */
+    public BatchConfiguration(final int maxBatchSize, final long maxLatency) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be > 0");
+        }
+        if (maxLatency <= 0) {
+            throw new IllegalArgumentException("maxLatency must be > 0");
+        }
+
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatency = maxLatency;
+    }
+
+    public int getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
+    public long getMaxLatency() {
+        return this.maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "maxBatchSize: <"+this.maxBatchSize+"> maxLatency: <"+this.maxLatency+">";
+    }
+
+}
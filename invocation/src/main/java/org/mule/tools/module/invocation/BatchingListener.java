@@ -0,0 +1,249 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.lifecycle.Stoppable;
+import org.mule.tools.module.invocation.statistics.SourceStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link DynamicModule.Listener} buffering events and delivering them as batches to a {@link DynamicModule.BatchListener}.
+ * <br />
+ * A batch is delivered by the {@link org.mule.api.source.MessageSource} thread when full, or by a dedicated timer thread once its first event has been waiting for {@link BatchConfiguration#getMaxLatency()}.
+ * Batches are delivered one at a time, in order. Once stopped, pending events are delivered and new ones are dropped.
+ * <br />
+ * Each batch delivery is recorded once as a batch: buffering an event is not accounted as listener time.
+ *
+ * @see BatchConfiguration
+ */
+public class BatchingListener implements Registrar.TimedListener, Stoppable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingListener.class.getPackage().getName());
+
+    private final DynamicModule.BatchListener listener;
+    private final BatchConfiguration configuration;
+    private final SourceStatistics statistics;
+    private final ScheduledExecutorService timer;
+    //Guards buffer, generation and pendingBatches.
+    private final Object lock = new Object();
+    //Serializes batches delivery.
+    private final Object deliveryLock = new Object();
+    private List<MuleEvent> buffer;
+    //Batches handed over but not yet delivered, in order.
+    private final Queue<List<MuleEvent>> pendingBatches = new LinkedList<List<MuleEvent>>();
+    //Incremented every time buffer is handed over; lets a timer ignore a batch already delivered because full.
+    private long generation;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean running = true;
+
+    public BatchingListener(final DynamicModule.BatchListener listener, final BatchConfiguration configuration, final String name) {
+        this(listener, configuration, name, null);
+    }
+
+    /**
+     * @param listener
+     * @param configuration
+     * @param name used to name timer thread
+     * @param statistics if not null, records delivered batches and dropped events
+     */
+    public BatchingListener(final DynamicModule.BatchListener listener, final BatchConfiguration configuration, final String name, @Nullable final SourceStatistics statistics) {
+        if (listener == null) {
+            throw new IllegalArgumentException("null listener");
+        }
+        if (configuration == null) {
+            throw new IllegalArgumentException("null configuration");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("null name");
+        }
+
+        this.listener = listener;
+        this.configuration = configuration;
+        this.statistics = statistics;
+        this.buffer = newBuffer();
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("batching-listener-"+name+"-%d").build());
+    }
+
+    private List<MuleEvent> newBuffer() {
+        return new ArrayList<MuleEvent>(this.configuration.getMaxBatchSize());
+    }
+
+    private void scheduleFlush(final long expectedGeneration) {
+        this.timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flush(expectedGeneration);
+            }
+        }, this.configuration.getMaxLatency(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue current batch for delivery and start a new one. Must be called while holding `lock`.
+     */
+    private void handOver() {
+        this.pendingBatches.add(this.buffer);
+        this.buffer = newBuffer();
+        this.generation++;
+    }
+
+    /**
+     * Deliver current batch if it is still `expectedGeneration`.
+     */
+    private void flush(final long expectedGeneration) {
+        synchronized (this.lock) {
+            if (this.generation == expectedGeneration && !this.buffer.isEmpty()) {
+                handOver();
+            }
+        }
+        deliverPendingBatches();
+    }
+
+    /**
+     * Deliver all batches handed over so far, in order.
+     */
+    private void deliverPendingBatches() {
+        synchronized (this.deliveryLock) {
+            while (true) {
+                final List<MuleEvent> batch;
+                synchronized (this.lock) {
+                    batch = this.pendingBatches.poll();
+                }
+                if (batch == null) {
+                    return;
+                }
+                deliver(batch);
+            }
+        }
+    }
+
+    private void deliver(final List<MuleEvent> batch) {
+        this.batches.incrementAndGet();
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            this.listener.onEvents(Collections.unmodifiableList(batch));
+            failed = false;
+        } catch (RuntimeException e) {
+            if (BatchingListener.LOGGER.isWarnEnabled()) {
+                BatchingListener.LOGGER.warn("Got exception while delivering batch of <"+batch.size()+"> events to <"+this.listener+">", e);
+            }
+        } finally {
+            if (this.statistics != null) {
+                this.statistics.recordBatch(batch.size(), System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private void dropped() {
+        this.droppedEvents.incrementAndGet();
+        if (this.statistics != null) {
+            this.statistics.eventDropped();
+        }
+    }
+
+    @Override
+    public final void onEvent(final MuleEvent event) {
+        final boolean full;
+        synchronized (this.lock) {
+            if (!this.running) {
+                dropped();
+                return;
+            }
+
+            this.buffer.add(event);
+            full = this.buffer.size() >= this.configuration.getMaxBatchSize();
+            if (full) {
+                //Hand full batch over before releasing lock so that no other event can be added to it.
+                handOver();
+            } else if (this.buffer.size() == 1) {
+                scheduleFlush(this.generation);
+            }
+        }
+        if (full) {
+            deliverPendingBatches();
+        }
+    }
+
+    public final BatchConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    /**
+     * @return number of events waiting for their batch to be delivered
+     */
+    public final int getPendingEvents() {
+        synchronized (this.lock) {
+            int pendingEvents = this.buffer.size();
+            for (final List<MuleEvent> batch : this.pendingBatches) {
+                pendingEvents += batch.size();
+            }
+            return pendingEvents;
+        }
+    }
+
+    /**
+     * @return number of batches delivered since creation
+     */
+    public final long getBatches() {
+        return this.batches.get();
+    }
+
+    /**
+     * @return number of events dropped since creation
+     */
+    public final long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * Stop accepting events and deliver pending ones.
+     */
+    @Override
+    public final void stop() {
+        final long currentGeneration;
+        synchronized (this.lock) {
+            this.running = false;
+            currentGeneration = this.generation;
+        }
+        this.timer.shutdownNow();
+        flush(currentGeneration);
+    }
+
+    @Override
+    public String toString() {
+        return "listener: <"+this.listener+"> configuration: <"+this.configuration+"> pendingEvents: <"+getPendingEvents()+"> batches: <"+getBatches()+"> droppedEvents: <"+getDroppedEvents()+">";
+    }
+
+}
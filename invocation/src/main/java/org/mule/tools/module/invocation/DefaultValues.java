@@ -0,0 +1,161 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.mule.api.MuleContext;
+import org.mule.api.registry.ResolverException;
+import org.mule.api.registry.TransformerResolver;
+import org.mule.api.transformer.DataType;
+import org.mule.api.transformer.Transformer;
+import org.mule.api.transformer.TransformerException;
+import org.mule.tools.module.model.Parameter;
+import org.mule.transformer.types.DataTypeFactory;
+
+/**
+ * Memoize {@link Parameter} default values transformed to their type.
+ * <br />
+ * Cached values are shared when their type is known to be immutable, cloned when possible and transformed again otherwise so that invocations never share mutable state.
+ * <br />
+ * Registered as a {@link TransformerResolver} so that the cache is invalidated when transformers are added or removed.
+ */
+final class DefaultValues implements TransformerResolver {
+
+    /**
+     * Hold transformed value as {@link LoadingCache} does not support null values.
+     */
+    private static final class DefaultValue {
+
+        private final Object value;
+
+        public DefaultValue(final Object value) {
+            this.value = value;
+        }
+
+    }
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class, URI.class, URL.class, Locale.class));
+
+    private final MuleContext context;
+    //Keys are compared by identity: each Processor/Source/Module owns its Parameter instances.
+    private final LoadingCache<Parameter, DefaultValue> cache = CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<Parameter, DefaultValue>() {
+        @Override
+        public DefaultValue load(final Parameter parameter) {
+            return new DefaultValue(transform(parameter));
+        }
+    });
+
+    public DefaultValues(final MuleContext context) {
+        if (context == null) {
+            throw new IllegalArgumentException("null context");
+        }
+
+        this.context = context;
+    }
+
+    /**
+     * @param parameter
+     * @return default value of `parameter` freshly transformed to its type
+     */
+    private Object transform(final Parameter parameter) {
+        try {
+            final Transformer transformer = this.context.getRegistry().lookupTransformer(DataType.STRING_DATA_TYPE, DataTypeFactory.create(parameter.getType()));
+            return transformer.transform(parameter.getDefaultValue());
+        } catch (TransformerException e) {
+            throw new RuntimeException("Failed to transform <"+parameter.getDefaultValue()+"> to <"+parameter.getType()+"> for parameter <"+parameter.getName()+">", e);
+        }
+    }
+
+    private static boolean isImmutable(final Class<?> type) {
+        return DefaultValues.IMMUTABLE_TYPES.contains(type) || Enum.class.isAssignableFrom(type);
+    }
+
+    /**
+     * @param value
+     * @return a clone of `value`, null if it cannot be cloned
+     */
+    private static Object cloneOf(final Object value) {
+        if (!(value instanceof Cloneable)) {
+            return null;
+        }
+
+        try {
+            return value.getClass().getMethod("clone").invoke(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param parameter
+     * @return default value of `parameter` transformed to its type; safe to be modified by caller
+     */
+    public Object get(final Parameter parameter) {
+        if (parameter == null) {
+            throw new IllegalArgumentException("null parameter");
+        }
+        if (parameter.getDefaultValue() == null) {
+            throw new IllegalArgumentException("No default value for parameter <"+parameter.getName()+">");
+        }
+
+        final Object value;
+        try {
+            value = this.cache.getUnchecked(parameter).value;
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        if (value == null || DefaultValues.isImmutable(value.getClass())) {
+            return value;
+        }
+
+        final Object clone = DefaultValues.cloneOf(value);
+        if (clone != null) {
+            return clone;
+        }
+        return transform(parameter);
+    }
+
+    /**
+     * Never resolves a {@link Transformer}; only used to be notified of transformer changes.
+     */
+    @Override
+    public Transformer resolve(final DataType<?> source, final DataType<?> result) throws ResolverException {
+        return null;
+    }
+
+    @Override
+    public void transformerChange(final Transformer transformer, final RegistryAction registryAction) {
+        this.cache.invalidateAll();
+    }
+
+}
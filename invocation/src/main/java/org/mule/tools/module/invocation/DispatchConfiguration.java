@@ -0,0 +1,97 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Configuration of {@link DispatchingListener}s.
+ */
+@Immutable
+public final class DispatchConfiguration {
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Block {@link org.mule.api.source.MessageSource} thread until there is room in the queue.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest queued event to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the new event and throw an exception to {@link org.mule.api.source.MessageSource}.
+         */
+        FAIL
+
+    }
+
+    public static final DispatchConfiguration DEFAULT = new DispatchConfiguration(1024, 1, OverflowPolicy.BLOCK);
+
+    private final int queueCapacity;
+    private final int workers;
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * @param queueCapacity maximum number of events waiting to be delivered
+     * @param workers number of threads delivering events to the {@link DynamicModule.Listener}; events are delivered in order only if 1
+     * @param overflowPolicy
+     */
+    public DispatchConfiguration(final int queueCapacity, final int workers, final OverflowPolicy overflowPolicy) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be > 0");
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be > 0");
+        }
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("null overflowPolicy");
+        }
+
+        this.queueCapacity = queueCapacity;
+        this.workers = workers;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    public int getWorkers() {
+        return this.workers;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "queueCapacity: <"+this.queueCapacity+"> workers: <"+this.workers+"> overflowPolicy: <"+this.overflowPolicy+">";
+    }
+
+}
@@ -0,0 +1,224 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.lifecycle.Stoppable;
+import org.mule.tools.module.invocation.statistics.SourceStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link DynamicModule.Listener} handing events to a bounded queue drained by dedicated worker threads so that a slow {@link DynamicModule.Listener} does not block
+ * {@link org.mule.api.source.MessageSource} threads.
+ * <br />
+ * When the queue is full events are handled according to {@link DispatchConfiguration.OverflowPolicy}.
+ * Once stopped, already queued events are still delivered but new ones are dropped.
+ * <br />
+ * Listener executions are recorded when run by worker threads: time spent queueing is not accounted as listener time.
+ *
+ * @see DispatchConfiguration
+ */
+public class DispatchingListener implements Registrar.TimedListener, Stoppable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DispatchingListener.class.getPackage().getName());
+
+    private static final long POLL_TIMEOUT = 100;
+
+    private final DynamicModule.Listener listener;
+    private final DispatchConfiguration configuration;
+    private final SourceStatistics statistics;
+    private final BlockingQueue<MuleEvent> queue;
+    private final ExecutorService workers;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean running = true;
+
+    public DispatchingListener(final DynamicModule.Listener listener, final DispatchConfiguration configuration, final String name) {
+        this(listener, configuration, name, null);
+    }
+
+    /**
+     * @param listener
+     * @param configuration
+     * @param name used to name worker threads
+     * @param statistics if not null, records dropped events and listener executions
+     */
+    public DispatchingListener(final DynamicModule.Listener listener, final DispatchConfiguration configuration, final String name, @Nullable final SourceStatistics statistics) {
+        if (listener == null) {
+            throw new IllegalArgumentException("null listener");
+        }
+        if (configuration == null) {
+            throw new IllegalArgumentException("null configuration");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("null name");
+        }
+
+        this.listener = listener;
+        this.configuration = configuration;
+        this.statistics = statistics;
+        this.queue = new ArrayBlockingQueue<MuleEvent>(configuration.getQueueCapacity());
+        this.workers = Executors.newFixedThreadPool(configuration.getWorkers(), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dispatching-listener-"+name+"-%d").build());
+        for (int i = 0; i < configuration.getWorkers(); i++) {
+            this.workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            });
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            final MuleEvent event;
+            try {
+                event = this.queue.poll(DispatchingListener.POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event == null) {
+                if (!this.running) {
+                    //Events enqueued while stop() was called are only visible now: see onEvent(MuleEvent).
+                    for (MuleEvent remaining = this.queue.poll(); remaining != null; remaining = this.queue.poll()) {
+                        deliver(remaining);
+                    }
+                    return;
+                }
+                continue;
+            }
+
+            deliver(event);
+        }
+    }
+
+    private void deliver(final MuleEvent event) {
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            this.listener.onEvent(event);
+            failed = false;
+        } catch (RuntimeException e) {
+            if (DispatchingListener.LOGGER.isWarnEnabled()) {
+                DispatchingListener.LOGGER.warn("Got exception while delivering <"+event+"> to <"+this.listener+">", e);
+            }
+        } finally {
+            if (this.statistics != null) {
+                this.statistics.recordListenerTime(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private void dropped() {
+        this.droppedEvents.incrementAndGet();
+        if (this.statistics != null) {
+            this.statistics.eventDropped();
+        }
+    }
+
+    @Override
+    public final void onEvent(final MuleEvent event) {
+        if (!this.running) {
+            dropped();
+            return;
+        }
+
+        switch (this.configuration.getOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    this.queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped();
+                    return;
+                }
+                break;
+            case DROP_OLDEST:
+                while (!this.queue.offer(event)) {
+                    if (this.queue.poll() != null) {
+                        dropped();
+                    }
+                }
+                break;
+            case DROP_NEWEST:
+                if (!this.queue.offer(event)) {
+                    dropped();
+                    return;
+                }
+                break;
+            case FAIL:
+                if (!this.queue.offer(event)) {
+                    dropped();
+                    throw new IllegalStateException("Queue is full (<"+this.configuration.getQueueCapacity()+"> events); dropping <"+event+">");
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unsupported overflow policy <"+this.configuration.getOverflowPolicy()+">");
+        }
+
+        //Stopped while enqueueing: workers might have exited already. Either one of them got `event` or it is dropped.
+        if (!this.running && this.queue.remove(event)) {
+            dropped();
+        }
+    }
+
+    public final DispatchConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    /**
+     * @return number of events waiting to be delivered
+     */
+    public final int getQueueSize() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return number of events dropped since creation
+     */
+    public final long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * Stop accepting events. Queued events are still delivered, then worker threads terminate.
+     */
+    @Override
+    public final void stop() {
+        this.running = false;
+        this.workers.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "listener: <"+this.listener+"> configuration: <"+this.configuration+"> queueSize: <"+getQueueSize()+"> droppedEvents: <"+getDroppedEvents()+">";
+    }
+
+}
@@ -18,15 +18,31 @@
 
 package org.mule.tools.module.invocation;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
@@ -36,15 +52,12 @@ import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.api.registry.RegistrationException;
 import org.mule.api.source.MessageSource;
-import org.mule.api.transformer.DataType;
-import org.mule.api.transformer.Transformer;
-import org.mule.api.transformer.TransformerException;
 import org.mule.tools.module.helper.*;
+import org.mule.tools.module.invocation.statistics.ModuleStatistics;
 import org.mule.tools.module.model.Module;
 import org.mule.tools.module.model.Parameter;
 import org.mule.tools.module.model.Processor;
 import org.mule.tools.module.model.Source;
-import org.mule.transformer.types.DataTypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,21 +75,52 @@ public class DynamicModule implements Disposable {
 
     }
 
+    /**
+     * Encapsulate logic dealing with batches of events received from a {@link Source}.
+     *
+     * @see BatchingListener
+     */
+    public interface BatchListener {
+
+        /**
+         * Called every time a batch of events fired by associated {@link Source} is complete.
+         */
+        void onEvents(List<MuleEvent> messages);
+
+    }
+
     private static final Logger LOGGER = LoggerFactory.getLogger(DynamicModule.class.getPackage().getName());
 
     private final MuleContext context;
+    private final boolean sharedContext;
+    private final long muleContextTime;
+    private volatile InitialisationTimings initialisationTimings;
+    private static final AtomicLong INSTANCE_COUNTER = new AtomicLong();
+    private final String registryKeyPrefix;
+    private final ModuleStatistics statistics;
     private final ClassLoader classLoader;
     private final Module module;
     private Object moduleObject;
     private Object connectionManager;
+    //Object injected in MessageProcessors and MessageSources: connectionManager if any, moduleObject otherwise.
+    private Object registeredObject;
     private static final String MODULE_OBJECT_REGISTRY_KEY = "moduleObject";
+    private static final String DEFAULT_VALUES_REGISTRY_KEY = "defaultValues";
+    private final DefaultValues defaultValues;
     private final int retryMax;
     protected static final int DEFAULT_RETRY_MAX = 5;
     private final Map<String, Object> parameters;
     private final Map<String, Object> connectionParameters;
-    private final Map<String, MessageProcessor> messageProcessorCache = new HashMap<String, MessageProcessor>();
-    private final Map<Class<?>, Invoker> invokerCache = new HashMap<Class<?>, Invoker>();
-    private final Map<Class<?>, Registrar> registrarCache = new HashMap<Class<?>, Registrar>();
+    private final PoolConfiguration poolConfiguration;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService handOffExecutor;
+    protected static final int DEFAULT_ASYNC_MAX_THREADS = 16;
+    protected static final int DEFAULT_ASYNC_QUEUE_DEPTH = 1024;
+    private volatile ListeningExecutorService asyncExecutor;
+    private final LoadingCache<String, InvokerPool> invokerPoolCache;
+    private final LoadingCache<String, PreparedInvocation> preparedInvocationCache;
+    private final AtomicLong subscriptionCounter = new AtomicLong();
+    private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<String, Subscription>();
 
     //TODO Introduce builder
     public DynamicModule(final List<URL> urls, final Module module) {
@@ -96,6 +140,38 @@ public class DynamicModule implements Disposable {
     }
 
     public DynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> overriddenConnectionParameters, final int retryMax) {
+        this(classLoader, module, overriddenParameters, overriddenConnectionParameters, retryMax, PoolConfiguration.DEFAULT);
+    }
+
+    public DynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> overriddenConnectionParameters, final int retryMax, final PoolConfiguration poolConfiguration) {
+        this(classLoader, module, overriddenParameters, overriddenConnectionParameters, retryMax, poolConfiguration, null);
+    }
+
+    /**
+     * @param classLoader
+     * @param module
+     * @param overriddenParameters
+     * @param overriddenConnectionParameters
+     * @param retryMax
+     * @param poolConfiguration
+     * @param context {@link MuleContext} shared with other {@link DynamicModule}s (e.g. {@link MuleContexts#sharedMuleContext()}) and not disposed by {@link #dispose()}; if null a dedicated one is created
+     */
+    public DynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> overriddenConnectionParameters, final int retryMax, final PoolConfiguration poolConfiguration, @Nullable final MuleContext context) {
+        this(classLoader, module, overriddenParameters, overriddenConnectionParameters, retryMax, poolConfiguration, context, false);
+    }
+
+    /**
+     * @param classLoader
+     * @param module
+     * @param overriddenParameters
+     * @param overriddenConnectionParameters
+     * @param retryMax
+     * @param poolConfiguration
+     * @param context {@link MuleContext} shared with other {@link DynamicModule}s and not disposed by {@link #dispose()}; if null a dedicated one is created
+     * @param lazy if true loading, instantiating and registering module objects is deferred until first invocation or subscription
+     * @see #ensureInitialised()
+     */
+    public DynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> overriddenConnectionParameters, final int retryMax, final PoolConfiguration poolConfiguration, @Nullable final MuleContext context, final boolean lazy) {
         if (classLoader == null) {
             throw new IllegalArgumentException("null classLoader");
         }
@@ -111,25 +187,76 @@ public class DynamicModule implements Disposable {
         if (retryMax <= 0) {
             throw new IllegalArgumentException("retryMax must be > 0");
         }
+        if (poolConfiguration == null) {
+            throw new IllegalArgumentException("null poolConfiguration");
+        }
 
-        validateParameterTypeCorrectness(module.getParameters(), overriddenParameters);
-        ensureNoMissingParameters(module.getParameters(), overriddenParameters);
+        validateParameterTypeCorrectness(module.getParametersByName(), overriddenParameters);
+        ensureNoMissingParameters(module.getParametersByName(), overriddenParameters);
 
+        final long muleContextStart = System.nanoTime();
+        if (context != null) {
+            this.context = context;
+            this.sharedContext = true;
+        } else {
+            try {
+                this.context = MuleContexts.defaultMuleContext();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            this.sharedContext = false;
+        }
+        this.muleContextTime = this.sharedContext ? 0 : System.nanoTime() - muleContextStart;
+        final String instanceName = module.getName()+"#"+DynamicModule.INSTANCE_COUNTER.incrementAndGet();
+        this.registryKeyPrefix = instanceName+".";
+        this.statistics = new ModuleStatistics(instanceName);
+        this.defaultValues = new DefaultValues(this.context);
+        //Release context if anything fails from now on.
         try {
-            this.context = MuleContexts.defaultMuleContext();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        this.classLoader = classLoader;
-        this.module = module;
-        this.retryMax = retryMax;
-        this.parameters = allParameters(module.getParameters(), overriddenParameters);
-        this.connectionParameters = overriddenConnectionParameters;//TODO add support for default values
-        
-        try {
-            initialise();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            try {
+                this.context.getRegistry().registerObject(registryKey(DynamicModule.DEFAULT_VALUES_REGISTRY_KEY), this.defaultValues);
+            } catch (RegistrationException e) {
+                throw new RuntimeException(e);
+            }
+            this.classLoader = classLoader;
+            this.module = module;
+            this.retryMax = retryMax;
+            this.parameters = allParameters(module.getParametersByName(), overriddenParameters);
+            this.connectionParameters = overriddenConnectionParameters;//TODO add support for default values
+            this.poolConfiguration = poolConfiguration;
+            this.invokerPoolCache = CacheBuilder.newBuilder().build(new CacheLoader<String, InvokerPool>() {
+                @Override
+                public InvokerPool load(final String type) {
+                    return createInvokerPool(type);
+                }
+            });
+            this.preparedInvocationCache = CacheBuilder.newBuilder().build(new CacheLoader<String, PreparedInvocation>() {
+                @Override
+                public PreparedInvocation load(final String processorName) {
+                    return createPreparedInvocation(processorName);
+                }
+            });
+
+            if (!lazy) {
+                ensureInitialised();
+            }
+        } catch (RuntimeException e) {
+            releaseContext();
+            throw e;
+        }
+
+        //Created once nothing can fail anymore so that they cannot leak.
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dynamic-module-"+module.getName()+"-%d").build());
+        //Threads are only created on first use.
+        this.handOffExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dynamic-module-"+module.getName()+"-hand-off-%d").build());
+
+        if (poolConfiguration.getIdleTimeout() != PoolConfiguration.NO_TIMEOUT) {
+            this.scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evictIdleInvokers();
+                }
+            }, poolConfiguration.getIdleTimeout(), poolConfiguration.getIdleTimeout(), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -137,45 +264,169 @@ public class DynamicModule implements Disposable {
         return this.context;
     }
 
-    private void initialise() throws InitialisationException, RegistrationException, MuleException {
+    /**
+     * @return invocation statistics of this {@link DynamicModule}
+     * @see ModuleStatistics#registerMBeans(javax.management.MBeanServer)
+     */
+    public final ModuleStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * @param name
+     * @return `name` namespaced for this instance so that several {@link DynamicModule}s can share a {@link MuleContext}
+     */
+    protected final String registryKey(final String name) {
+        return this.registryKeyPrefix+name;
+    }
+
+    /**
+     * @return a {@link ScheduledExecutorService} running background tasks of this {@link DynamicModule}; shutdown on {@link #dispose()}
+     */
+    protected final ScheduledExecutorService getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * @return an unbounded {@link ExecutorService} running tasks that may block, e.g. submitting to a bounded executor, so that they do not stall {@link #getScheduler()}; shutdown on {@link #dispose()}
+     */
+    protected final ExecutorService getHandOffExecutor() {
+        return this.handOffExecutor;
+    }
+
+    /**
+     * @return default {@link ListeningExecutorService} used by {@link #invokeAsync(java.lang.String, java.util.Map)}, lazily created; shutdown on {@link #dispose()}
+     * @see ExecutorServices#newBoundedExecutor(java.lang.String, int, int)
+     */
+    protected final ListeningExecutorService getAsyncExecutor() {
+        ListeningExecutorService executor = this.asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.asyncExecutor;
+                if (executor == null) {
+                    executor = ExecutorServices.newBoundedExecutor("dynamic-module-"+this.module.getName()+"-async-%d", DynamicModule.DEFAULT_ASYNC_MAX_THREADS, DynamicModule.DEFAULT_ASYNC_QUEUE_DEPTH);
+                    this.asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Load, instantiate, initialise and register module objects if not already done.
+     * Automatically called on first invocation or subscription when created lazily.
+     * @return time spent in each initialisation phase
+     */
+    public final InitialisationTimings ensureInitialised() {
+        InitialisationTimings timings = this.initialisationTimings;
+        if (timings == null) {
+            synchronized (this) {
+                timings = this.initialisationTimings;
+                if (timings == null) {
+                    try {
+                        timings = initialise();
+                    } catch (Exception e) {
+                        disposeModuleObjects();
+                        throw new RuntimeException(e);
+                    }
+                    this.initialisationTimings = timings;
+                }
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * @return time spent in each initialisation phase, null if not yet initialised
+     */
+    @Nullable
+    public final InitialisationTimings getInitialisationTimings() {
+        return this.initialisationTimings;
+    }
+
+    private InitialisationTimings initialise() throws InitialisationException, RegistrationException, MuleException {
+        long classLoadingTime = 0;
+        long lifecycleTime = 0;
+        long parametersTime = 0;
+
+        long start = System.nanoTime();
         final Class<?> moduleObjectClass = Classes.loadClass(this.classLoader, this.module.getType());
         if (moduleObjectClass == null) {
             throw new IllegalArgumentException("Failed to load <"+this.module.getType()+">");
         }
         this.moduleObject = Classes.newInstance(moduleObjectClass);
+        classLoadingTime += System.nanoTime() - start;
+        start = System.nanoTime();
         if (Modules.isLifeCycleCapable(this.moduleObject)) {
             LifeCycles.initialise(this.moduleObject);
             LifeCycles.start(this.moduleObject);
         }
+        lifecycleTime += System.nanoTime() - start;
         if (this.module.getConnectionManagerType() != null) {
+            start = System.nanoTime();
             final Class<?> connectionManagerClass = Classes.loadClass(this.classLoader, this.module.getConnectionManagerType());
             if (connectionManagerClass == null) {
                 throw new IllegalArgumentException("Failed to load <"+this.module.getConnectionManagerType()+">");
             }
             this.connectionManager = Classes.newInstance(connectionManagerClass);
+            classLoadingTime += System.nanoTime() - start;
+            start = System.nanoTime();
             if (Modules.isLifeCycleCapable(this.connectionManager)) {
                 LifeCycles.initialise(this.connectionManager);
             }
+            lifecycleTime += System.nanoTime() - start;
+            start = System.nanoTime();
             for (final Map.Entry<String, Object> entry : this.connectionParameters.entrySet()) {
                 Reflections.set(this.connectionManager, entry.getKey(), entry.getValue());
             }
+            parametersTime += System.nanoTime() - start;
         }
 
         //Apply parameters to the ModuleObject.
+        start = System.nanoTime();
         final Object object = this.connectionManager != null ? this.connectionManager : this.moduleObject;
         for (final Map.Entry<String, Object> entry : this.parameters.entrySet()) {
             Reflections.set(object, entry.getKey(), entry.getValue());
         }
+        parametersTime += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        this.registeredObject = object;
+        this.context.getRegistry().registerObject(registryKey(DynamicModule.MODULE_OBJECT_REGISTRY_KEY), object);
+        final long registryTime = System.nanoTime() - start;
 
-        this.context.getRegistry().registerObject(DynamicModule.MODULE_OBJECT_REGISTRY_KEY, object);
+        return new InitialisationTimings(this.muleContextTime, classLoadingTime, lifecycleTime, parametersTime, registryTime);
+    }
+
+    /**
+     * Stop and dispose module objects left by a failed {@link #initialise()} so that next attempt starts afresh.
+     */
+    private void disposeModuleObjects() {
+        try {
+            if (this.connectionManager != null && Modules.isLifeCycleCapable(this.connectionManager)) {
+                LifeCycles.dispose(this.connectionManager);
+            }
+            if (this.moduleObject != null && Modules.isLifeCycleCapable(this.moduleObject)) {
+                LifeCycles.stop(this.moduleObject);
+                LifeCycles.dispose(this.moduleObject);
+            }
+        } catch (Exception e) {
+            if (DynamicModule.LOGGER.isWarnEnabled()) {
+                DynamicModule.LOGGER.warn("Got exception while disposing module objects of <"+this.module.getName()+">", e);
+            }
+        } finally {
+            this.moduleObject = null;
+            this.connectionManager = null;
+            this.registeredObject = null;
+        }
     }
 
-    protected final void validateParameterTypeCorrectness(final List<Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
+    protected final void validateParameterTypeCorrectness(final Map<String, Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
         final List<String> incorrectParameterTypes = new LinkedList<String>();
         //Ensure all overridden parameter types are correct.
         for (final Map.Entry<String, Object> entry : overriddenParameters.entrySet()) {
             final String parameterName = entry.getKey();
-            final Parameter parameter = Parameters.getParameter(defaultParameters, parameterName);
+            final Parameter parameter = defaultParameters.get(parameterName);
             if (parameter == null) {
                 continue;
             }
@@ -183,57 +434,54 @@ public class DynamicModule implements Disposable {
             final Class<?> expectedType = Reflections.asType(parameter.getType());
             final Class<?> type = entry.getValue().getClass();
             if (!expectedType.isAssignableFrom(type)) {
-                final StringBuilder details = new StringBuilder(parameterName);
-                details.append("(type ").append(type.getCanonicalName()).append(" is not assignable to ").append(expectedType.getCanonicalName()).append(")");
-                incorrectParameterTypes.add(details.toString());
+                incorrectParameterTypes.add(Parameters.incorrectTypeDetails(parameterName, type, expectedType));
             }
         }
         if (!incorrectParameterTypes.isEmpty()) {
-            final String terminaison = incorrectParameterTypes.size()>1?"s":"";
-            throw new IllegalArgumentException("Incorrect type"+terminaison+" for parameter"+terminaison+" <"+incorrectParameterTypes+">");
+            throw Parameters.incorrectTypes(incorrectParameterTypes);
         }
     }
 
-    protected final void ensureNoMissingParameters(final List<Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
+    protected final void ensureNoMissingParameters(final Map<String, Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
         final List<String> missingMandatoryParameters = new LinkedList<String>();
         //Ensure all mandatory parameter values are provided.
-        for (final Parameter parameter : defaultParameters) {
+        for (final Parameter parameter : defaultParameters.values()) {
             if (!parameter.isOptional() && parameter.getDefaultValue() == null
                 && !overriddenParameters.containsKey(parameter.getName())) {
                 missingMandatoryParameters.add(parameter.getName());
             }
         }
         if (!missingMandatoryParameters.isEmpty()) {
-            final String terminaison = missingMandatoryParameters.size()>1?"s":"";
-            throw new IllegalArgumentException("Value"+terminaison+" for parameter"+terminaison+" <"+missingMandatoryParameters+"> must be provided");
+            throw Parameters.missingParameters(missingMandatoryParameters);
         }
     }
 
+    /**
+     * Transformed values are cached per {@link Parameter} and copied when mutable.
+     * @param parameter
+     * @return default value of `parameter` transformed to its type
+     */
+    protected final Object transformDefaultValue(final Parameter parameter) {
+        return this.defaultValues.get(parameter);
+    }
+
     /**
      * Aggregate all parameters: default and overridden ones.
      * Overridden parameters take precedence over default ones.
      * @return 
      */
-    protected final Map<String, Object> allParameters(final List<Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
+    protected final Map<String, Object> allParameters(final Map<String, Parameter> defaultParameters, final Map<String, Object> overriddenParameters) {
         final Map<String, Object> allParameters = new HashMap<String, Object>();
-        final Set<String> defaultParameterNames = new HashSet<String>();
-        for (final Parameter parameter : defaultParameters) {
+        for (final Parameter parameter : defaultParameters.values()) {
             //Only add default values
             if (parameter.getDefaultValue() != null) {
-                try {
-                    final Transformer transformer = this.context.getRegistry().lookupTransformer(DataType.STRING_DATA_TYPE, DataTypeFactory.create(parameter.getType()));
-                    allParameters.put(parameter.getName(), transformer.transform(parameter.getDefaultValue()));
-                } catch (TransformerException e) {
-                    throw new RuntimeException("Failed to transform <"+parameter.getDefaultValue()+"> to <"+parameter.getType()+"> for parameter <"+parameter.getName()+">", e);
-                }
-                
+                allParameters.put(parameter.getName(), transformDefaultValue(parameter));
             }
-            defaultParameterNames.add(parameter.getName());
         }
         for (final Map.Entry<String, Object> entry : overriddenParameters.entrySet()) {
             //Only add existing parameters
             final String parameterName = entry.getKey();
-            if (!defaultParameterNames.contains(parameterName)) {
+            if (!defaultParameters.containsKey(parameterName)) {
                 if (DynamicModule.LOGGER.isWarnEnabled()) {
                     DynamicModule.LOGGER.warn("Value has been provided for unknown parameter <"+parameterName+">; it will be ignored");
                 }
@@ -251,30 +499,95 @@ public class DynamicModule implements Disposable {
      * @return {@link Module.Processor} extracted from {@link Module$Processor}with specified name, null otherwise
      */
     protected final Processor findProcessor(final String processorName) {
+        return this.module.getProcessor(processorName);
+    }
+
+    /**
+     * @param type
+     * @return name of the {@link Processor} whose {@link MessageProcessor} is `type`, `type` if none
+     */
+    private String processorName(final String type) {
         for (final Processor processor : this.module.getProcessors()) {
-            if (processorName.equals(processor.getName())) {
-                return processor;
+            if (type.equals(processor.getType())) {
+                return processor.getName();
             }
         }
-        return null;
+        return type;
     }
 
     /**
-     * @param messageProcessor
-     * @return an {@link Invoker} for {@link MessageProcessor}. Creates it if needed.
-     * @throws InitialisationException
-     * @throws MuleException
-     * @see #createInvoker(org.mule.api.processor.MessageProcessor) 
+     * @param type
+     * @return a new {@link InvokerPool} for {@link MessageProcessor} `type`
      */
-    protected synchronized final Invoker getInvoker(final MessageProcessor messageProcessor) throws InitialisationException, MuleException {
-        final Class<?> key = messageProcessor.getClass();
-        if (this.invokerCache.containsKey(key)) {
-            return this.invokerCache.get(key);
+    private InvokerPool createInvokerPool(final String type) {
+        ensureInitialised();
+
+        final Class<MessageProcessor> messageProcessorType = Classes.loadClass(this.classLoader, type);
+        if (messageProcessorType == null) {
+            throw new IllegalArgumentException("Cannot load <"+type+">");
         }
+        final InvokerPool invokerPool = new InvokerPool(this.context, messageProcessorType, this.retryMax, this.poolConfiguration, this.registeredObject, this.statistics.getProcessorStatistics(processorName(type)));
+        invokerPool.ensureMinSize();
+        return invokerPool;
+    }
 
-        final Invoker invoker = new Invoker(this.context, messageProcessor, this.retryMax);
-        this.invokerCache.put(key, invoker);
-        return invoker;
+    /**
+     * Lookups do not block once the {@link InvokerPool} exists. Concurrent first lookups for a same `type` wait for a single creation.
+     * @param type
+     * @return an {@link InvokerPool} for {@link MessageProcessor} `type`. Creates it if needed.
+     */
+    protected final InvokerPool getInvokerPool(final String type) {
+        try {
+            return this.invokerPoolCache.getUnchecked(type);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Call {@link InvokerPool#evict()} for all cached {@link InvokerPool}s.
+     */
+    protected final void evictIdleInvokers() {
+        for (final InvokerPool invokerPool : this.invokerPoolCache.asMap().values()) {
+            try {
+                invokerPool.evict();
+            } catch (RuntimeException e) {
+                if (DynamicModule.LOGGER.isWarnEnabled()) {
+                    DynamicModule.LOGGER.warn("Got exception while evicting idle invokers of <"+invokerPool+">", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param processorName
+     * @return a new {@link PreparedInvocation} for `processorName`
+     */
+    private PreparedInvocation createPreparedInvocation(final String processorName) {
+        final Processor processor = findProcessor(processorName);
+        if (processor == null) {
+            throw new IllegalArgumentException("Cannot find a Processor named <"+processorName+">");
+        }
+
+        return new PreparedInvocation(this, processor, getInvokerPool(processor.getType()));
+    }
+
+    /**
+     * Resolve once all that is needed to invoke `processorName`: {@link Processor}, {@link InvokerPool}, parameter types and default values.
+     * Returned {@link PreparedInvocation} can then be invoked repeatedly and concurrently.
+     * @param processorName
+     * @return a cached {@link PreparedInvocation} for `processorName`
+     */
+    public final PreparedInvocation prepare(final String processorName) {
+        if (processorName == null) {
+            throw new IllegalArgumentException("null processorName");
+        }
+
+        try {
+            return this.preparedInvocationCache.getUnchecked(processorName);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
     }
 
     /**
@@ -285,6 +598,7 @@ public class DynamicModule implements Disposable {
      * @return
      * @throws InitialisationException
      * @throws MuleException 
+     * @see #prepare(java.lang.String)
      */
     public final <T> T invoke(final String processorName, final Map<String, Object> overriddenParameters) throws InitialisationException, MuleException {
         if (processorName == null) {
@@ -294,33 +608,123 @@ public class DynamicModule implements Disposable {
             throw new IllegalArgumentException("null overriddenParameters");
         }
 
-        final Processor processor = findProcessor(processorName);
-        if (processor == null) {
-            throw new IllegalArgumentException("Cannot find a Processor named <"+processorName+">");
-        }
+        return prepare(processorName).<T>invoke(overriddenParameters);
+    }
 
-        validateParameterTypeCorrectness(processor.getParameters(), overriddenParameters);
-        ensureNoMissingParameters(processor.getParameters(), overriddenParameters);
+    /**
+     * Asynchronously invoke `processorName` using default bounded {@link ListeningExecutorService}.
+     * @param <T>
+     * @param processorName
+     * @param overriddenParameters
+     * @return a {@link ListenableFuture} completed with invocation result
+     * @see #invokeAsync(java.lang.String, java.util.Map, com.google.common.util.concurrent.ListeningExecutorService)
+     */
+    public final <T> ListenableFuture<T> invokeAsync(final String processorName, final Map<String, Object> overriddenParameters) {
+        return this.<T>invokeAsync(processorName, overriddenParameters, getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously invoke `processorName` with provided `overriddenParameters` on `executor`.
+     * Parameters are validated on calling thread; invocation failures are reported through returned {@link ListenableFuture}.
+     * @param <T>
+     * @param processorName
+     * @param overriddenParameters
+     * @param executor
+     * @return a {@link ListenableFuture} completed with invocation result
+     * @see ExecutorServices#newBoundedExecutor(java.lang.String, int, int)
+     */
+    public final <T> ListenableFuture<T> invokeAsync(final String processorName, final Map<String, Object> overriddenParameters, final ListeningExecutorService executor) {
+        if (processorName == null) {
+            throw new IllegalArgumentException("null processorName");
+        }
+        if (overriddenParameters == null) {
+            throw new IllegalArgumentException("null overriddenParameters");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
 
-        return invoke(getMessageProcessor(processor.getType()), allParameters(processor.getParameters(), overriddenParameters));
+        return prepare(processorName).<T>invokeAsync(overriddenParameters, executor);
     }
 
-    public synchronized final MessageProcessor getMessageProcessor(final String type) {
-        if (this.messageProcessorCache.containsKey(type)) {
-            return this.messageProcessorCache.get(type);
-        } else {
-            final Class<MessageProcessor> messageProcessorType = Classes.loadClass(this.classLoader, type);
-            if (messageProcessorType == null) {
-                throw new IllegalArgumentException("Cannot load <"+type+">");
+    /**
+     * @param <T>
+     * @param invokerPool
+     * @param parameters
+     * @param executor
+     * @return a {@link ListenableFuture} completed with invocation result
+     */
+    protected <T> ListenableFuture<T> invokeAsync(final InvokerPool invokerPool, final Map<String, Object> parameters, final ListeningExecutorService executor) {
+        return executor.submit(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return DynamicModule.this.<T>invoke(invokerPool, parameters);
             }
-            final MessageProcessor messageProcessor = Classes.newInstance(messageProcessorType);
-            this.messageProcessorCache.put(type, messageProcessor);
-            return messageProcessor;
+        });
+    }
+
+    /**
+     * Invoke `processorName` once per element of `allOverriddenParameters`, with a parallelism bounded by default async executor size.
+     * @param <T>
+     * @param processorName
+     * @param allOverriddenParameters
+     * @return one {@link InvocationResult} per element of `allOverriddenParameters`, in the same order
+     * @see #invokeAll(java.lang.String, java.util.List, int)
+     */
+    public final <T> List<InvocationResult<T>> invokeAll(final String processorName, final List<Map<String, Object>> allOverriddenParameters) {
+        return this.<T>invokeAll(processorName, allOverriddenParameters, DynamicModule.DEFAULT_ASYNC_MAX_THREADS);
+    }
+
+    /**
+     * Invoke `processorName` once per element of `allOverriddenParameters`. {@link Processor} resolution happens once; elements are spread across at most `parallelism` pooled {@link Invoker}s.
+     * <br />
+     * Individual failures (including parameter validation) do not abort the batch but are reported in matching {@link InvocationResult}.
+     * @param <T>
+     * @param processorName
+     * @param allOverriddenParameters
+     * @param parallelism
+     * @return one {@link InvocationResult} per element of `allOverriddenParameters`, in the same order
+     */
+    public final <T> List<InvocationResult<T>> invokeAll(final String processorName, final List<Map<String, Object>> allOverriddenParameters, final int parallelism) {
+        if (processorName == null) {
+            throw new IllegalArgumentException("null processorName");
         }
+        if (allOverriddenParameters == null) {
+            throw new IllegalArgumentException("null allOverriddenParameters");
+        }
+
+        return prepare(processorName).<T>invokeAll(allOverriddenParameters, parallelism, getAsyncExecutor());
     }
 
-    protected <T> T invoke(final MessageProcessor messageProcessor, final Map<String, Object> parameters) throws InitialisationException, MuleException {
-        return getInvoker(messageProcessor).invoke(parameters);
+    /**
+     * Invoke an {@link Invoker} borrowed from `invokerPool` so that concurrent invocations never share parameters.
+     * {@link Invoker} creation happens before {@link #invoke(org.mule.tools.module.invocation.Invoker, java.util.Map)} is called.
+     * @param <T>
+     * @param invokerPool
+     * @param parameters
+     * @return
+     * @throws InitialisationException
+     * @throws MuleException
+     */
+    protected final <T> T invoke(final InvokerPool invokerPool, final Map<String, Object> parameters) throws InitialisationException, MuleException {
+        final Invoker invoker = invokerPool.borrow();
+        try {
+            return this.<T>invoke(invoker, parameters);
+        } finally {
+            invokerPool.release(invoker);
+        }
+    }
+
+    /**
+     * @param <T>
+     * @param invoker an {@link Invoker} exclusively owned by current thread
+     * @param parameters
+     * @return
+     * @throws InitialisationException
+     * @throws MuleException
+     */
+    protected <T> T invoke(final Invoker invoker, final Map<String, Object> parameters) throws InitialisationException, MuleException {
+        return invoker.<T>invoke(parameters);
     }
 
     /**
@@ -328,44 +732,143 @@ public class DynamicModule implements Disposable {
      * @return {@link Module.Source} extracted from {@link Module$Source}with specified name, null otherwise
      */
     protected final Source findSource(final String sourceName) {
-        for (final Source source : this.module.getSources()) {
-            if (sourceName.equals(source.getName())) {
-                return source;
+        return this.module.getSource(sourceName);
+    }
+
+    /**
+     * @param sourceName
+     * @return all active {@link Subscription}s to `sourceName` {@link Source}
+     */
+    public final List<Subscription> getSubscriptions(final String sourceName) {
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+
+        final List<Subscription> sourceSubscriptions = new LinkedList<Subscription>();
+        for (final Subscription subscription : this.subscriptions.values()) {
+            if (sourceName.equals(subscription.getSourceName())) {
+                sourceSubscriptions.add(subscription);
             }
         }
-        return null;
+        return sourceSubscriptions;
     }
 
     /**
      * @param messageSourceType
-     * @return a cached {@link Invoker} for {@link MessageProcessor}.
+     * @param sourceName
+     * @return a new {@link Registrar} wrapping a new `messageSourceType` instance
+     */
+    protected final Registrar createRegistrar(final Class<MessageSource> messageSourceType, final String sourceName) {
+        ensureInitialised();
+
+        return new Registrar(this.context, Classes.<MessageSource>newInstance(messageSourceType), this.registeredObject, this.statistics.getSourceStatistics(sourceName));
+    }
+
+    /**
+     * Subscribe to `sourceName` {@link Source}. Events are delivered to `listener` by dedicated threads through a bounded queue so that `listener` does not block the {@link Source}.
+     * @param sourceName
+     * @param overriddenParameters
+     * @param listener
+     * @param dispatchConfiguration
+     * @return the new {@link Subscription}; its {@link DispatchingListener} wrapping `listener` is stopped on {@link #unsubscribe(org.mule.tools.module.invocation.Subscription)}
+     * @throws InitialisationException
+     * @throws MuleException
+     * @see DispatchingListener
+     */
+    public final Subscription subscribe(final String sourceName, final Map<String, Object> overriddenParameters, final Listener listener, final DispatchConfiguration dispatchConfiguration) throws InitialisationException, MuleException {
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+        if (dispatchConfiguration == null) {
+            throw new IllegalArgumentException("null dispatchConfiguration");
+        }
+
+        final DispatchingListener dispatchingListener = new DispatchingListener(listener, dispatchConfiguration, this.module.getName()+"-"+sourceName, this.statistics.getSourceStatistics(sourceName));
+        try {
+            return subscribe(sourceName, overriddenParameters, dispatchingListener);
+        } catch (RuntimeException e) {
+            dispatchingListener.stop();
+            throw e;
+        } catch (MuleException e) {
+            dispatchingListener.stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Subscribe to `sourceName` {@link Source}. Events are buffered and delivered to `listener` in batches, flushed when full or when their first event has waited too long.
+     * @param sourceName
+     * @param overriddenParameters
+     * @param listener
+     * @param batchConfiguration
+     * @return the new {@link Subscription}; its {@link BatchingListener} wrapping `listener` is stopped on {@link #unsubscribe(org.mule.tools.module.invocation.Subscription)}
      * @throws InitialisationException
      * @throws MuleException
-     * @see #createInvoker(org.mule.api.processor.MessageProcessor) 
+     * @see BatchingListener
      */
-    protected synchronized final Registrar getRegistrar(final Class<MessageSource> messageSourceType) throws InitialisationException, MuleException {
-        return this.registrarCache.get(messageSourceType);
+    public final Subscription subscribe(final String sourceName, final Map<String, Object> overriddenParameters, final BatchListener listener, final BatchConfiguration batchConfiguration) throws InitialisationException, MuleException {
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+        if (batchConfiguration == null) {
+            throw new IllegalArgumentException("null batchConfiguration");
+        }
+
+        final BatchingListener batchingListener = new BatchingListener(listener, batchConfiguration, this.module.getName()+"-"+sourceName, this.statistics.getSourceStatistics(sourceName));
+        try {
+            return subscribe(sourceName, overriddenParameters, batchingListener);
+        } catch (RuntimeException e) {
+            batchingListener.stop();
+            throw e;
+        } catch (MuleException e) {
+            batchingListener.stop();
+            throw e;
+        }
     }
 
     /**
-     * @param messageSource
-     * @return a new cached {@link Regsitrar}
+     * @param sourceName
+     * @param overriddenParameters
+     * @return a {@link SourcePublisher} for `sourceName` {@link Source} buffering at most {@link SourcePublisher#DEFAULT_BUFFER_SIZE} events before pausing it
+     * @see #createPublisher(java.lang.String, java.util.Map, int)
+     */
+    public final SourcePublisher createPublisher(final String sourceName, final Map<String, Object> overriddenParameters) {
+        return createPublisher(sourceName, overriddenParameters, SourcePublisher.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Expose `sourceName` {@link Source} as a reactive-streams {@link org.reactivestreams.Publisher}.
+     * Each {@link org.reactivestreams.Subscriber} gets its own {@link Subscription}, paused when it does not keep up.
+     * @param sourceName
+     * @param overriddenParameters
+     * @param bufferSize number of not yet requested events buffered before pausing the {@link Source}
+     * @return a {@link SourcePublisher} for `sourceName` {@link Source}
+     * @see SourcePublisher
      */
-    protected synchronized final Registrar createAndCacheRegistrar(final Class<MessageSource> messageSourceType) {
-        final Registrar registrar = new Registrar(this.context, Classes.<MessageSource>newInstance(messageSourceType));
-        this.registrarCache.put(messageSourceType, registrar);
-        return registrar;
+    public final SourcePublisher createPublisher(final String sourceName, final Map<String, Object> overriddenParameters, final int bufferSize) {
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+        if (findSource(sourceName) == null) {
+            throw new IllegalArgumentException("Cannot find a Source named <"+sourceName+">");
+        }
+
+        return new SourcePublisher(this, sourceName, overriddenParameters, bufferSize);
     }
 
     /**
      * Subscribe {@link Listener} to `sourceName` {@link Source} with `overriddenParameters`.
+     * <br />
+     * Each call creates a new {@link Subscription} backed by its own {@link MessageSource}: a {@link Source} can be subscribed several times with different parameters.
+     * More {@link Listener}s can be attached to the returned {@link Subscription}.
      * @param sourceName
      * @param overriddenParameters
      * @param listener
+     * @return the new {@link Subscription}
      * @throws InitialisationException
      * @throws MuleException 
      */
-    public synchronized final void subscribe(final String sourceName, final Map<String, Object> overriddenParameters, final Listener listener) throws InitialisationException, MuleException {
+    public final Subscription subscribe(final String sourceName, final Map<String, Object> overriddenParameters, final Listener listener) throws InitialisationException, MuleException {
         if (sourceName == null) {
             throw new IllegalArgumentException("null sourceName");
         }
@@ -378,18 +881,28 @@ public class DynamicModule implements Disposable {
             throw new IllegalArgumentException("Cannot find a Source named <"+sourceName+">");
         }
 
-        validateParameterTypeCorrectness(source.getParameters(), overriddenParameters);
-        ensureNoMissingParameters(source.getParameters(), overriddenParameters);
+        validateParameterTypeCorrectness(source.getParametersByName(), overriddenParameters);
+        ensureNoMissingParameters(source.getParametersByName(), overriddenParameters);
 
-        final Registrar registrar = getRegistrar(Classes.<MessageSource>loadClass(this.classLoader, source.getType()));
-        if (registrar != null) {
-            throw new IllegalStateException("Source <"+sourceName+"> is already subscribed");
-        }
-        createAndCacheRegistrar(Classes.<MessageSource>loadClass(this.classLoader, source.getType())).start(allParameters(source.getParameters(), overriddenParameters), listener);
+        final Registrar registrar = createRegistrar(Classes.<MessageSource>loadClass(this.classLoader, source.getType()), sourceName);
+        final Subscription subscription = new Subscription(sourceName+"#"+this.subscriptionCounter.incrementAndGet(), sourceName, registrar, listener);
+        this.subscriptions.put(subscription.getId(), subscription);
+        try {
+            registrar.start(allParameters(source.getParametersByName(), overriddenParameters), subscription.getFanOutListener());
+        } catch (RuntimeException e) {
+            this.subscriptions.remove(subscription.getId());
+            registrar.dispose();
+            throw e;
+        } catch (MuleException e) {
+            this.subscriptions.remove(subscription.getId());
+            registrar.dispose();
+            throw e;
+        }
+        return subscription;
     }
 
     /**
-     * Unsubscribe {@link Listener} previously registered to `sourceName` {@link Source}.
+     * Unsubscribe all {@link Subscription}s to `sourceName` {@link Source}.
      * @param sourceName
      * @throws InitialisationException
      * @throws MuleException 
@@ -404,37 +917,97 @@ public class DynamicModule implements Disposable {
             throw new IllegalArgumentException("Cannot find a Source named <"+sourceName+">");
         }
 
-        final Registrar registrar = getRegistrar(Classes.<MessageSource>loadClass(this.classLoader, source.getType()));
-        if (registrar == null) {
+        final List<Subscription> sourceSubscriptions = getSubscriptions(sourceName);
+        if (sourceSubscriptions.isEmpty()) {
             throw new IllegalStateException("Source <"+sourceName+"> is not subscribed");
         }
-        registrar.stop();
+        for (final Subscription subscription : sourceSubscriptions) {
+            unsubscribe(subscription);
+        }
+    }
+
+    /**
+     * Stop `subscription` {@link MessageSource} and its {@link Listener}s.
+     * @param subscription
+     * @return false if `subscription` was not active
+     * @throws MuleException 
+     */
+    public final boolean unsubscribe(final Subscription subscription) throws MuleException {
+        if (subscription == null) {
+            throw new IllegalArgumentException("null subscription");
+        }
+
+        if (!this.subscriptions.remove(subscription.getId(), subscription)) {
+            return false;
+        }
+        try {
+            subscription.getRegistrar().stop();
+        } finally {
+            subscription.getRegistrar().dispose();
+        }
+        return true;
+    }
+
+    private void unregister(final String name) {
+        try {
+            this.context.getRegistry().unregisterObject(registryKey(name));
+        } catch (RegistrationException e) {
+            if (DynamicModule.LOGGER.isWarnEnabled()) {
+                DynamicModule.LOGGER.warn("Got exception while unregistering <"+registryKey(name)+">", e);
+            }
+        }
     }
 
     /**
      * Cleanup all internal resources:
-     * * call {@link Invoker#dispose()} for all cached {@link Invoker}
-     * * call {@link Registrar#stop()} for all cached {@link Registrar}
-     * * call {@link MuleCOntext#dispose()}
+     * * shutdown background tasks
+     * * call {@link InvokerPool#dispose()} for all cached {@link InvokerPool}
+     * * unsubscribe all {@link Subscription}s
+     * * call {@link MuleCOntext#dispose()} if not shared, unregister objects otherwise
      */
     @Override
     public final void dispose() {
-        for (final Invoker invoker : this.invokerCache.values()) {
-            invoker.dispose();
-        }
-        this.invokerCache.clear();
-        for (final Registrar registrar : this.registrarCache.values()) {
+        this.scheduler.shutdownNow();
+        this.handOffExecutor.shutdown();
+        final ListeningExecutorService executor = this.asyncExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+        for (final InvokerPool invokerPool : this.invokerPoolCache.asMap().values()) {
+            invokerPool.dispose();
+        }
+        this.invokerPoolCache.invalidateAll();
+        this.preparedInvocationCache.invalidateAll();
+        for (final Subscription subscription : this.subscriptions.values()) {
             try {
-                registrar.stop();
+                unsubscribe(subscription);
             } catch (MuleException e) {
                 if (DynamicModule.LOGGER.isWarnEnabled()) {
-                    DynamicModule.LOGGER.warn("Got exception while closing <"+registrar+">", e);
+                    DynamicModule.LOGGER.warn("Got exception while closing <"+subscription+">", e);
                 }
             }
         }
-        this.registrarCache.clear();
-        this.messageProcessorCache.clear();
-        this.context.dispose();
+        this.statistics.unregisterMBeans();
+        releaseContext();
+    }
+
+    /**
+     * Call {@link MuleContext#dispose()} if not shared, unregister objects otherwise.
+     */
+    private void releaseContext() {
+        if (this.sharedContext) {
+            if (this.initialisationTimings != null) {
+                unregister(DynamicModule.MODULE_OBJECT_REGISTRY_KEY);
+            }
+            unregister(DynamicModule.DEFAULT_VALUES_REGISTRY_KEY);
+        } else {
+            this.context.dispose();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "module: <"+this.module.getName()+"> registryKeyPrefix: <"+this.registryKeyPrefix+">";
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Time spent in each phase of a {@link DynamicModule} initialisation. All times are in nanoseconds.
+ *
+ * @see DynamicModule#ensureInitialised()
+ */
+@Immutable
+public final class InitialisationTimings {
+
+    private final long muleContextTime;
+    private final long classLoadingTime;
+    private final long lifecycleTime;
+    private final long parametersTime;
+    private final long registryTime;
+
+    /**
+     * @param muleContextTime time spent creating the {@link org.mule.api.MuleContext}; 0 when shared
+     * @param classLoadingTime time spent loading and instantiating module and connection manager classes
+     * @param lifecycleTime time spent in module and connection manager lifecycle methods
+     * @param parametersTime time spent applying parameters
+     * @param registryTime time spent registering objects
+     */
+    public InitialisationTimings(final long muleContextTime, final long classLoadingTime, final long lifecycleTime, final long parametersTime, final long registryTime) {
+        this.muleContextTime = muleContextTime;
+        this.classLoadingTime = classLoadingTime;
+        this.lifecycleTime = lifecycleTime;
+        this.parametersTime = parametersTime;
+        this.registryTime = registryTime;
+    }
+
+    public long getMuleContextTime() {
+        return this.muleContextTime;
+    }
+
+    public long getClassLoadingTime() {
+        return this.classLoadingTime;
+    }
+
+    public long getLifecycleTime() {
+        return this.lifecycleTime;
+    }
+
+    public long getParametersTime() {
+        return this.parametersTime;
+    }
+
+    public long getRegistryTime() {
+        return this.registryTime;
+    }
+
+    public long getTotalTime() {
+        return this.muleContextTime + this.classLoadingTime + this.lifecycleTime + this.parametersTime + this.registryTime;
+    }
+
+    private static long millis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "muleContext: <"+InitialisationTimings.millis(this.muleContextTime)+"ms> classLoading: <"+InitialisationTimings.millis(this.classLoadingTime)+"ms> lifecycle: <"+InitialisationTimings.millis(this.lifecycleTime)+"ms> parameters: <"+InitialisationTimings.millis(this.parametersTime)+"ms> registry: <"+InitialisationTimings.millis(this.registryTime)+"ms> total: <"+InitialisationTimings.millis(getTotalTime())+"ms>";
+    }
+
+}
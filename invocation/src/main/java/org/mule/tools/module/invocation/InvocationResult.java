@@ -0,0 +1,83 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Outcome of a single invocation part of a batch: either a value or a failure.
+ *
+ * @param <T> type of invocation result
+ * @see DynamicModule#invokeAll(java.lang.String, java.util.List, int)
+ */
+@Immutable
+public final class InvocationResult<T> {
+
+    private final T value;
+    private final Throwable failure;
+
+    private InvocationResult(@Nullable final T value, @Nullable final Throwable failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    public static <T> InvocationResult<T> success(@Nullable final T value) {
+        return new InvocationResult<T>(value, null);
+    }
+
+    public static <T> InvocationResult<T> failure(final Throwable failure) {
+        if (failure == null) {
+            throw new IllegalArgumentException("null failure");
+        }
+
+        return new InvocationResult<T>(null, failure);
+    }
+
+    public boolean isSuccess() {
+        return this.failure == null;
+    }
+
+    /**
+     * @return invocation result
+     * @throws IllegalStateException if invocation failed
+     */
+    @Nullable
+    public T getValue() {
+        if (!isSuccess()) {
+            throw new IllegalStateException("Invocation failed", this.failure);
+        }
+
+        return this.value;
+    }
+
+    /**
+     * @return invocation failure, null if invocation succeeded
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return this.failure;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "value: <"+this.value+">" : "failure: <"+this.failure+">";
+    }
+
+}
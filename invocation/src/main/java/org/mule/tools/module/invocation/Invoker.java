@@ -19,6 +19,7 @@
 package org.mule.tools.module.invocation;
 
 import java.util.Map;
+import javax.annotation.Nullable;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
@@ -28,17 +29,42 @@ import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.tools.module.helper.LifeCycles;
+import org.mule.tools.module.helper.Modules;
 import org.mule.tools.module.helper.MuleEvents;
 import org.mule.tools.module.helper.Reflections;
+import org.mule.tools.module.invocation.statistics.ProcessorStatistics;
 
 public class Invoker implements Disposable {
 
     private final MuleContext context;
     private final MessageProcessor messageProcessor;
     private final int retryMax;
+    private final Object moduleObject;
+    private final ProcessorStatistics statistics;
     private static final String RETRY_MAX_FIELD_NAME = "retryMax";
 
     public Invoker(final MuleContext context, final MessageProcessor messageProcessor, final int retryMax) {
+        this(context, messageProcessor, retryMax, null);
+    }
+
+    /**
+     * @param context
+     * @param messageProcessor
+     * @param retryMax
+     * @param moduleObject set on `messageProcessor` if not null; otherwise `messageProcessor` looks it up in the registry
+     */
+    public Invoker(final MuleContext context, final MessageProcessor messageProcessor, final int retryMax, @Nullable final Object moduleObject) {
+        this(context, messageProcessor, retryMax, moduleObject, null);
+    }
+
+    /**
+     * @param context
+     * @param messageProcessor
+     * @param retryMax
+     * @param moduleObject set on `messageProcessor` if not null; otherwise `messageProcessor` looks it up in the registry
+     * @param statistics if not null, records process time of each invocation
+     */
+    public Invoker(final MuleContext context, final MessageProcessor messageProcessor, final int retryMax, @Nullable final Object moduleObject, @Nullable final ProcessorStatistics statistics) {
         if (context == null) {
             throw new IllegalArgumentException("null context");
         }
@@ -49,6 +75,8 @@ public class Invoker implements Disposable {
         this.context = context;
         this.messageProcessor = messageProcessor;
         this.retryMax = retryMax;
+        this.moduleObject = moduleObject;
+        this.statistics = statistics;
 
         try {
             initialise();
@@ -59,6 +87,9 @@ public class Invoker implements Disposable {
 
     private void initialise() throws InitialisationException, MuleException {
         Reflections.set(this.messageProcessor, Invoker.RETRY_MAX_FIELD_NAME, this.retryMax);
+        if (this.moduleObject != null) {
+            Modules.setModuleObject(this.messageProcessor, this.moduleObject);
+        }
 
         MuleContextAware.class.cast(this.messageProcessor).setMuleContext(this.context);
         LifeCycles.initialise(this.messageProcessor);
@@ -70,11 +101,26 @@ public class Invoker implements Disposable {
             throw new IllegalArgumentException("null processorParameters");
         }
 
-        //Set all parameter values on the MessageProcessor.
-        Reflections.set(this.messageProcessor, processorParameters);
+        final long start = System.nanoTime();
+        try {
+            //Set all parameter values on the MessageProcessor.
+            Reflections.set(this.messageProcessor, processorParameters);
+
+            final MuleEvent muleEvent = MuleEvents.defaultMuleEvent(processorParameters, this.context);
+            return (T) this.messageProcessor.process(muleEvent).getMessage().getPayload();
+        } finally {
+            if (this.statistics != null) {
+                this.statistics.recordProcessTime(System.nanoTime() - start);
+            }
+        }
+    }
 
-        final MuleEvent muleEvent = MuleEvents.defaultMuleEvent(processorParameters, this.context);
-        return (T) this.messageProcessor.process(muleEvent).getMessage().getPayload();
+    /**
+     * @return {@link ProcessorStatistics} recording this {@link Invoker} invocations, null if none
+     */
+    @Nullable
+    public final ProcessorStatistics getStatistics() {
+        return this.statistics;
     }
 
     @Override
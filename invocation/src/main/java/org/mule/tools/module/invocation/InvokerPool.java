@@ -0,0 +1,282 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import org.mule.api.MuleContext;
+import org.mule.api.MuleException;
+import org.mule.api.lifecycle.Disposable;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.tools.module.helper.Classes;
+import org.mule.tools.module.invocation.statistics.ProcessorStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of {@link Invoker}s for a {@link MessageProcessor} type.
+ * Parameters are pushed into the {@link MessageProcessor} before each invocation so a single instance cannot be shared by concurrent invocations.
+ * Each invocation borrows its own {@link Invoker} (hence its own {@link MessageProcessor}) and releases it when done.
+ * <br />
+ * Most recently released {@link Invoker}s are borrowed first so that least used ones can be evicted once idle for too long.
+ *
+ * @see PoolConfiguration
+ */
+public class InvokerPool implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvokerPool.class.getPackage().getName());
+
+    private static class IdleInvoker {
+
+        private final Invoker invoker;
+        private final long idleSince;
+
+        private IdleInvoker(final Invoker invoker, final long idleSince) {
+            this.invoker = invoker;
+            this.idleSince = idleSince;
+        }
+
+    }
+
+    private final MuleContext context;
+    private final Class<? extends MessageProcessor> messageProcessorType;
+    private final int retryMax;
+    private final PoolConfiguration configuration;
+    private final Object moduleObject;
+    private final ProcessorStatistics statistics;
+    private final Semaphore permits;
+    private final BlockingDeque<IdleInvoker> idleInvokers = new LinkedBlockingDeque<IdleInvoker>();
+    private final Set<Invoker> allInvokers = Collections.newSetFromMap(new ConcurrentHashMap<Invoker, Boolean>());
+    private volatile boolean disposed = false;
+
+    public InvokerPool(final MuleContext context, final Class<? extends MessageProcessor> messageProcessorType, final int retryMax) {
+        this(context, messageProcessorType, retryMax, PoolConfiguration.DEFAULT);
+    }
+
+    public InvokerPool(final MuleContext context, final Class<? extends MessageProcessor> messageProcessorType, final int retryMax, final PoolConfiguration configuration) {
+        this(context, messageProcessorType, retryMax, configuration, null);
+    }
+
+    /**
+     * @param context
+     * @param messageProcessorType
+     * @param retryMax
+     * @param configuration
+     * @param moduleObject set on created {@link MessageProcessor}s if not null
+     */
+    public InvokerPool(final MuleContext context, final Class<? extends MessageProcessor> messageProcessorType, final int retryMax, final PoolConfiguration configuration, @Nullable final Object moduleObject) {
+        this(context, messageProcessorType, retryMax, configuration, moduleObject, null);
+    }
+
+    /**
+     * @param context
+     * @param messageProcessorType
+     * @param retryMax
+     * @param configuration
+     * @param moduleObject set on created {@link MessageProcessor}s if not null
+     * @param statistics recording invocations performed through this pool; if null a dedicated one is created
+     */
+    public InvokerPool(final MuleContext context, final Class<? extends MessageProcessor> messageProcessorType, final int retryMax, final PoolConfiguration configuration, @Nullable final Object moduleObject, @Nullable final ProcessorStatistics statistics) {
+        if (context == null) {
+            throw new IllegalArgumentException("null context");
+        }
+        if (messageProcessorType == null) {
+            throw new IllegalArgumentException("null messageProcessorType");
+        }
+        if (configuration == null) {
+            throw new IllegalArgumentException("null configuration");
+        }
+
+        this.context = context;
+        this.messageProcessorType = messageProcessorType;
+        this.retryMax = retryMax;
+        this.configuration = configuration;
+        this.moduleObject = moduleObject;
+        this.statistics = statistics != null ? statistics : new ProcessorStatistics(messageProcessorType.getName());
+        this.permits = new Semaphore(configuration.getMaxSize(), true);
+    }
+
+    /**
+     * @return a new initialised {@link Invoker}
+     */
+    protected Invoker createInvoker() {
+        final MessageProcessor messageProcessor = Classes.newInstance(this.messageProcessorType);
+        if (messageProcessor == null) {
+            throw new IllegalArgumentException("Failed to instantiate <"+this.messageProcessorType.getName()+">");
+        }
+        final Invoker invoker = new Invoker(this.context, messageProcessor, this.retryMax, this.moduleObject, this.statistics);
+        this.allInvokers.add(invoker);
+        return invoker;
+    }
+
+    protected final void destroyInvoker(final Invoker invoker) {
+        this.allInvokers.remove(invoker);
+        try {
+            invoker.dispose();
+        } catch (RuntimeException e) {
+            if (InvokerPool.LOGGER.isWarnEnabled()) {
+                InvokerPool.LOGGER.warn("Got exception while disposing <"+invoker+">", e);
+            }
+        }
+    }
+
+    protected final void acquirePermit() {
+        final long borrowTimeout = this.configuration.getBorrowTimeout();
+        try {
+            if (borrowTimeout == PoolConfiguration.NO_TIMEOUT) {
+                this.permits.acquire();
+            } else if (!this.permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Failed to borrow an Invoker for <"+this.messageProcessorType.getName()+"> within <"+borrowTimeout+"ms>; all <"+this.configuration.getMaxSize()+"> are in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an Invoker for <"+this.messageProcessorType.getName()+">", e);
+        }
+    }
+
+    public final ProcessorStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Blocks at most {@link PoolConfiguration#getBorrowTimeout()} if {@link PoolConfiguration#getMaxSize()} {@link Invoker}s are already borrowed.
+     * @return an idle {@link Invoker} exclusively owned by caller until {@link #release(org.mule.tools.module.invocation.Invoker)} is called. Creates it if needed.
+     * @throws IllegalStateException if no {@link Invoker} can be borrowed in time
+     */
+    public final Invoker borrow() {
+        if (this.disposed) {
+            throw new IllegalStateException("Pool for <"+this.messageProcessorType.getName()+"> is disposed");
+        }
+
+        acquirePermit();
+        final IdleInvoker idleInvoker = this.idleInvokers.pollFirst();
+        if (idleInvoker != null) {
+            return idleInvoker.invoker;
+        }
+        try {
+            return createInvoker();
+        } catch (RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back an {@link Invoker} previously obtained via {@link #borrow()}.
+     * @param invoker 
+     */
+    public final void release(final Invoker invoker) {
+        if (invoker == null) {
+            throw new IllegalArgumentException("null invoker");
+        }
+
+        try {
+            if (this.disposed) {
+                destroyInvoker(invoker);
+            } else {
+                this.idleInvokers.offerFirst(new IdleInvoker(invoker, System.nanoTime()));
+                //dispose() might have drained idle Invokers before `invoker` was offered.
+                if (this.disposed) {
+                    destroyIdleInvokers();
+                }
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Invoke a borrowed {@link Invoker} with `processorParameters`.
+     * @param <T>
+     * @param processorParameters
+     * @return
+     * @throws MuleException 
+     */
+    public final <T> T invoke(final Map<String, Object> processorParameters) throws MuleException {
+        final Invoker invoker = borrow();
+        try {
+            return invoker.<T>invoke(processorParameters);
+        } finally {
+            release(invoker);
+        }
+    }
+
+    /**
+     * Dispose {@link Invoker}s idle for more than {@link PoolConfiguration#getIdleTimeout()} then create {@link Invoker}s up to {@link PoolConfiguration#getMinSize()}.
+     */
+    public final void evict() {
+        final long idleTimeout = this.configuration.getIdleTimeout();
+        if (idleTimeout != PoolConfiguration.NO_TIMEOUT) {
+            final long idleLimit = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+            while (this.allInvokers.size() > this.configuration.getMinSize()) {
+                final IdleInvoker idleInvoker = this.idleInvokers.peekLast();
+                if (idleInvoker == null || idleInvoker.idleSince - idleLimit > 0) {
+                    break;
+                }
+                //Might have been borrowed in the meantime.
+                if (this.idleInvokers.removeLastOccurrence(idleInvoker)) {
+                    destroyInvoker(idleInvoker.invoker);
+                }
+            }
+        }
+
+        ensureMinSize();
+    }
+
+    /**
+     * Create {@link Invoker}s up to {@link PoolConfiguration#getMinSize()}.
+     */
+    public final void ensureMinSize() {
+        while (!this.disposed && this.allInvokers.size() < this.configuration.getMinSize() && this.permits.tryAcquire()) {
+            try {
+                this.idleInvokers.offerLast(new IdleInvoker(createInvoker(), System.nanoTime()));
+            } finally {
+                this.permits.release();
+            }
+        }
+        if (this.disposed) {
+            destroyIdleInvokers();
+        }
+    }
+
+    private void destroyIdleInvokers() {
+        IdleInvoker idleInvoker;
+        while ((idleInvoker = this.idleInvokers.pollFirst()) != null) {
+            destroyInvoker(idleInvoker.invoker);
+        }
+    }
+
+    /**
+     * Call {@link Invoker#dispose()} for all idle {@link Invoker}s. Borrowed {@link Invoker}s will be disposed when released.
+     */
+    @Override
+    public final void dispose() {
+        this.disposed = true;
+        destroyIdleInvokers();
+    }
+
+}
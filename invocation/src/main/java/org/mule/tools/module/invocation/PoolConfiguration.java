@@ -0,0 +1,94 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Configuration of {@link InvokerPool}s.
+ */
+@Immutable
+public final class PoolConfiguration {
+
+    /**
+     * Value for `maxSize` allowing an unbounded number of {@link Invoker}s.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+    /**
+     * Value for `idleTimeout` (idle {@link Invoker}s are never evicted) and `borrowTimeout` (borrowers wait until an {@link Invoker} is available).
+     */
+    public static final long NO_TIMEOUT = -1;
+    public static final PoolConfiguration DEFAULT = new PoolConfiguration(0, PoolConfiguration.UNBOUNDED, 60*1000, PoolConfiguration.NO_TIMEOUT);
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long borrowTimeout;
+
+    /**
+     * @param minSize number of {@link Invoker}s kept around even when idle
+     * @param maxSize maximum number of {@link Invoker}s, idle or borrowed
+     * @param idleTimeout time in milliseconds after which an idle {@link Invoker} is disposed
+     * @param borrowTimeout maximum time in milliseconds a borrower waits for an {@link Invoker} when `maxSize` is reached
+     */
+    public PoolConfiguration(final int minSize, final int maxSize, final long idleTimeout, final long borrowTimeout) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize must be >= 0");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        if (minSize > maxSize) {
+            throw new IllegalArgumentException("minSize must be <= maxSize");
+        }
+        if (idleTimeout <= 0 && idleTimeout != PoolConfiguration.NO_TIMEOUT) {
+            throw new IllegalArgumentException("idleTimeout must be > 0");
+        }
+        if (borrowTimeout < 0 && borrowTimeout != PoolConfiguration.NO_TIMEOUT) {
+            throw new IllegalArgumentException("borrowTimeout must be >= 0");
+        }
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    public int getMinSize() {
+        return this.minSize;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    public long getBorrowTimeout() {
+        return this.borrowTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "minSize: <"+this.minSize+"> maxSize: <"+this.maxSize+"> idleTimeout: <"+this.idleTimeout+"> borrowTimeout: <"+this.borrowTimeout+">";
+    }
+
+}
@@ -0,0 +1,329 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mule.api.MuleException;
+import org.mule.tools.module.helper.Parameters;
+import org.mule.tools.module.helper.Reflections;
+import org.mule.tools.module.invocation.statistics.ProcessorStatistics;
+import org.mule.tools.module.model.Parameter;
+import org.mule.tools.module.model.Processor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invocation plan for a {@link Processor}. Everything not depending on invocation parameters (parameter types, defaulted parameters, {@link InvokerPool})
+ * is resolved once at creation so that each {@link #invoke(java.util.Map)} only binds provided parameters.
+ * <br />
+ * Instances are thread safe.
+ *
+ * @see DynamicModule#prepare(java.lang.String)
+ */
+public final class PreparedInvocation {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedInvocation.class.getPackage().getName());
+
+    private final DynamicModule dynamicModule;
+    private final Processor processor;
+    private final InvokerPool invokerPool;
+    private final List<Parameter> defaultedParameters = new LinkedList<Parameter>();
+    private final Map<String, Object> resetParameters = new HashMap<String, Object>();
+    private final Map<String, Class<?>> parameterTypes = new HashMap<String, Class<?>>();
+    private final List<String> mandatoryParameterNames = new LinkedList<String>();
+
+    PreparedInvocation(final DynamicModule dynamicModule, final Processor processor, final InvokerPool invokerPool) {
+        if (dynamicModule == null) {
+            throw new IllegalArgumentException("null dynamicModule");
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("null processor");
+        }
+        if (invokerPool == null) {
+            throw new IllegalArgumentException("null invokerPool");
+        }
+
+        this.dynamicModule = dynamicModule;
+        this.processor = processor;
+        this.invokerPool = invokerPool;
+        for (final Parameter parameter : processor.getParameters()) {
+            this.parameterTypes.put(parameter.getName(), Reflections.asType(parameter.getType()));
+            if (parameter.getDefaultValue() != null) {
+                this.defaultedParameters.add(parameter);
+            } else if (parameter.isOptional()) {
+                //Reset values left by previous invocations on pooled MessageProcessors.
+                this.resetParameters.put(parameter.getName(), null);
+            } else {
+                this.mandatoryParameterNames.add(parameter.getName());
+            }
+        }
+    }
+
+    public final Processor getProcessor() {
+        return this.processor;
+    }
+
+    /**
+     * Validate `overriddenParameters` and merge them with default values.
+     * @param overriddenParameters
+     * @return all parameters
+     */
+    private Map<String, Object> bind(final Map<String, Object> overriddenParameters) {
+        final long start = System.nanoTime();
+        final Map<String, Object> allParameters = doBind(overriddenParameters);
+        this.invokerPool.getStatistics().recordBindingTime(System.nanoTime() - start);
+        return allParameters;
+    }
+
+    private Map<String, Object> doBind(final Map<String, Object> overriddenParameters) {
+        final Map<String, Object> allParameters = new HashMap<String, Object>(this.resetParameters);
+        for (final Parameter parameter : this.defaultedParameters) {
+            if (!overriddenParameters.containsKey(parameter.getName())) {
+                allParameters.put(parameter.getName(), this.dynamicModule.transformDefaultValue(parameter));
+            }
+        }
+        final List<String> incorrectParameterTypes = new LinkedList<String>();
+        for (final Map.Entry<String, Object> entry : overriddenParameters.entrySet()) {
+            final String parameterName = entry.getKey();
+            final Class<?> expectedType = this.parameterTypes.get(parameterName);
+            if (expectedType == null) {
+                if (PreparedInvocation.LOGGER.isWarnEnabled()) {
+                    PreparedInvocation.LOGGER.warn("Value has been provided for unknown parameter <"+parameterName+">; it will be ignored");
+                }
+
+                continue;
+            }
+
+            final Object value = entry.getValue();
+            if (value != null && !expectedType.isAssignableFrom(value.getClass())) {
+                incorrectParameterTypes.add(Parameters.incorrectTypeDetails(parameterName, value.getClass(), expectedType));
+            }
+            allParameters.put(parameterName, value);
+        }
+        if (!incorrectParameterTypes.isEmpty()) {
+            throw Parameters.incorrectTypes(incorrectParameterTypes);
+        }
+
+        final List<String> missingMandatoryParameters = new LinkedList<String>();
+        for (final String parameterName : this.mandatoryParameterNames) {
+            if (!overriddenParameters.containsKey(parameterName)) {
+                missingMandatoryParameters.add(parameterName);
+            }
+        }
+        if (!missingMandatoryParameters.isEmpty()) {
+            throw Parameters.missingParameters(missingMandatoryParameters);
+        }
+        return allParameters;
+    }
+
+    /**
+     * Invoke underlying {@link Processor} with provided `overriddenParameters`. Non overridden parameters will rely on default value.
+     * @param <T>
+     * @param overriddenParameters
+     * @return
+     * @throws MuleException
+     */
+    public final <T> T invoke(final Map<String, Object> overriddenParameters) throws MuleException {
+        if (overriddenParameters == null) {
+            throw new IllegalArgumentException("null overriddenParameters");
+        }
+
+        final ProcessorStatistics statistics = this.invokerPool.getStatistics();
+        statistics.callStarted();
+        boolean failed = true;
+        try {
+            final T result = this.dynamicModule.<T>invoke(this.invokerPool, bind(overriddenParameters));
+            failed = false;
+            return result;
+        } finally {
+            statistics.callCompleted(failed);
+        }
+    }
+
+    /**
+     * Asynchronously invoke underlying {@link Processor} on `executor`. Parameters are bound on calling thread.
+     * @param <T>
+     * @param overriddenParameters
+     * @param executor
+     * @return a {@link ListenableFuture} completed with invocation result
+     */
+    public final <T> ListenableFuture<T> invokeAsync(final Map<String, Object> overriddenParameters, final ListeningExecutorService executor) {
+        if (overriddenParameters == null) {
+            throw new IllegalArgumentException("null overriddenParameters");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+
+        final ProcessorStatistics statistics = this.invokerPool.getStatistics();
+        statistics.callStarted();
+        final ListenableFuture<T> future;
+        try {
+            future = this.dynamicModule.<T>invokeAsync(this.invokerPool, bind(overriddenParameters), executor);
+        } catch (RuntimeException e) {
+            statistics.callCompleted(true);
+            throw e;
+        }
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(final T result) {
+                statistics.callCompleted(false);
+            }
+            @Override
+            public void onFailure(final Throwable throwable) {
+                statistics.callCompleted(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Invoke underlying {@link Processor} once per element of `allOverriddenParameters`.
+     * <br />
+     * Up to `parallelism` workers (calling thread plus tasks submitted to `executor`) each borrow a single {@link Invoker} and process elements until none is left.
+     * If `executor` rejects a task no more are submitted: remaining elements are processed by workers already started, at worst by the calling thread only.
+     * <br />
+     * Once the calling thread is done (all elements taken or no {@link Invoker} could be borrowed), tasks not yet started are cancelled instead of being waited for: calling from a thread of a saturated `executor` does not deadlock.
+     * Elements no worker could process are reported as failures with the borrow failure.
+     * Note that submitting to a bounded `executor` blocking when full (e.g. {@link org.mule.tools.module.helper.ExecutorServices#newBoundedExecutor(java.lang.String, int, int)}) from one of its own threads still can.
+     * @param <T>
+     * @param allOverriddenParameters
+     * @param parallelism
+     * @param executor
+     * @return one {@link InvocationResult} per element of `allOverriddenParameters`, in the same order
+     */
+    public final <T> List<InvocationResult<T>> invokeAll(final List<Map<String, Object>> allOverriddenParameters, final int parallelism, final ExecutorService executor) {
+        if (allOverriddenParameters == null) {
+            throw new IllegalArgumentException("null allOverriddenParameters");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+
+        final int size = allOverriddenParameters.size();
+        final ProcessorStatistics statistics = this.invokerPool.getStatistics();
+        @SuppressWarnings("unchecked")
+        final InvocationResult<T>[] results = new InvocationResult[size];
+        final List<Map<String, Object>> allParameters = new ArrayList<Map<String, Object>>(size);
+        for (int i = 0; i < size; i++) {
+            try {
+                allParameters.add(bind(allOverriddenParameters.get(i)));
+            } catch (RuntimeException e) {
+                allParameters.add(null);
+                results[i] = InvocationResult.failure(e);
+                statistics.callStarted();
+                statistics.callCompleted(true);
+            }
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<RuntimeException> borrowFailure = new AtomicReference<RuntimeException>();
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                final Invoker invoker;
+                try {
+                    invoker = PreparedInvocation.this.invokerPool.borrow();
+                } catch (RuntimeException e) {
+                    borrowFailure.set(e);
+                    return;
+                }
+                try {
+                    for (int i = next.getAndIncrement(); i < size; i = next.getAndIncrement()) {
+                        final Map<String, Object> parameters = allParameters.get(i);
+                        if (parameters == null) {
+                            continue;
+                        }
+
+                        statistics.callStarted();
+                        try {
+                            results[i] = InvocationResult.success(PreparedInvocation.this.dynamicModule.<T>invoke(invoker, parameters));
+                            statistics.callCompleted(false);
+                        } catch (Exception e) {
+                            results[i] = InvocationResult.failure(e);
+                            statistics.callCompleted(true);
+                        }
+                    }
+                } finally {
+                    PreparedInvocation.this.invokerPool.release(invoker);
+                }
+            }
+        };
+
+        final List<Future<?>> helpers = new LinkedList<Future<?>>();
+        try {
+            for (int i = 1; i < Math.min(parallelism, size); i++) {
+                helpers.add(executor.submit(worker));
+            }
+        } catch (RejectedExecutionException e) {
+            if (PreparedInvocation.LOGGER.isWarnEnabled()) {
+                PreparedInvocation.LOGGER.warn("<"+executor+"> rejected helper; continuing with <"+(helpers.size()+1)+"> workers", e);
+            }
+        }
+        worker.run();
+        for (final Future<?> helper : helpers) {
+            //Calling worker either took all elements or could not borrow an Invoker: a helper not started yet would not do better.
+            if (helper.cancel(false)) {
+                continue;
+            }
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        //Only happens when no running worker could borrow an Invoker.
+        for (int i = 0; i < size; i++) {
+            if (results[i] == null) {
+                results[i] = InvocationResult.failure(borrowFailure.get());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public String toString() {
+        return "processor: <"+this.processor.getName()+">";
+    }
+
+}
@@ -19,35 +19,66 @@
 package org.mule.tools.module.invocation;
 
 import java.util.Map;
+import javax.annotation.Nullable;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
+import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.lifecycle.Stoppable;
 import org.mule.api.processor.MessageProcessor;
 import org.mule.api.source.MessageSource;
 import org.mule.tools.module.helper.LifeCycles;
+import org.mule.tools.module.helper.Modules;
 import org.mule.tools.module.helper.MuleContexts;
 import org.mule.tools.module.helper.Reflections;
+import org.mule.tools.module.invocation.statistics.SourceStatistics;
 
-public class Registrar implements Stoppable {
+public class Registrar implements Stoppable, Disposable {
+
+    /**
+     * {@link DynamicModule.Listener} recording its own executions using {@link SourceStatistics#recordListenerTime(long, boolean)}, e.g. because it delivers events from other threads.
+     * Only event reception is recorded for it.
+     */
+    interface TimedListener extends DynamicModule.Listener {
+    }
 
     private static class ListenerWrapper implements MessageProcessor {
 
         private final DynamicModule.Listener listener;
+        private final SourceStatistics statistics;
 
-        private ListenerWrapper(final DynamicModule.Listener listener) {
+        private ListenerWrapper(final DynamicModule.Listener listener, @Nullable final SourceStatistics statistics) {
             if (listener == null) {
                 throw new IllegalArgumentException("null listener");
             }
 
             this.listener = listener;
+            this.statistics = statistics;
         }
 
         @Override
         public final MuleEvent process(final MuleEvent event) throws MuleException {
-            this.listener.onEvent(event);
+            if (this.statistics == null) {
+                this.listener.onEvent(event);
+                return event;
+            }
+
+            this.statistics.eventReceived();
+            if (this.listener instanceof TimedListener) {
+                this.listener.onEvent(event);
+                return event;
+            }
+
+            final long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                this.listener.onEvent(event);
+                failed = false;
+            } finally {
+                this.statistics.recordListenerTime(System.nanoTime() - start, failed);
+            }
             return event;
         }
 
@@ -55,8 +86,25 @@ public class Registrar implements Stoppable {
 
     private final MuleContext context;
     private final MessageSource messageSource;
+    private final Object moduleObject;
+    private final SourceStatistics statistics;
+    private volatile DynamicModule.Listener listener;
 
     public Registrar(final MuleContext context, final MessageSource messageSource) {
+        this(context, messageSource, null);
+    }
+
+    public Registrar(final MuleContext context, final MessageSource messageSource, @Nullable final Object moduleObject) {
+        this(context, messageSource, moduleObject, null);
+    }
+
+    /**
+     * @param context
+     * @param messageSource
+     * @param moduleObject set on `messageSource` if not null; otherwise `messageSource` looks it up in the registry
+     * @param statistics if not null, records received events and listener executions
+     */
+    public Registrar(final MuleContext context, final MessageSource messageSource, @Nullable final Object moduleObject, @Nullable final SourceStatistics statistics) {
         if (context == null) {
             throw new IllegalArgumentException("null context");
         }
@@ -66,6 +114,8 @@ public class Registrar implements Stoppable {
 
         this.context = context;
         this.messageSource = messageSource;
+        this.moduleObject = moduleObject;
+        this.statistics = statistics;
 
         try {
             initialise();
@@ -75,6 +125,9 @@ public class Registrar implements Stoppable {
     }
 
     private void initialise() throws InitialisationException, MuleException {
+        if (this.moduleObject != null) {
+            Modules.setModuleObject(this.messageSource, this.moduleObject);
+        }
         MuleContexts.inject(this.messageSource, this.context);
 
         LifeCycles.initialise(this.messageSource);
@@ -83,14 +136,50 @@ public class Registrar implements Stoppable {
     public final void start(final Map<String, Object> sourceParameters, final DynamicModule.Listener listener) throws MuleException {
         Reflections.set(this.messageSource, sourceParameters);
 
-        this.messageSource.setListener(new ListenerWrapper(listener));
+        this.listener = listener;
+        this.messageSource.setListener(new ListenerWrapper(listener, this.statistics));
 
         LifeCycles.start(this.messageSource);
     }
 
+    /**
+     * Stop underlying {@link MessageSource} only, so that it stops firing events while staying registered.
+     * @see #resume()
+     */
+    public final void pause() throws MuleException {
+        LifeCycles.stop(this.messageSource);
+    }
+
+    /**
+     * Restart underlying {@link MessageSource} previously paused.
+     * @see #pause()
+     */
+    public final void resume() throws MuleException {
+        LifeCycles.start(this.messageSource);
+    }
+
+    /**
+     * Stop underlying {@link MessageSource} then {@link DynamicModule.Listener} if {@link Stoppable}.
+     */
     @Override
     public final void stop() throws MuleException {
         LifeCycles.stop(this.messageSource);
+        if (this.listener != null) {
+            LifeCycles.stop(this.listener);
+        }
+    }
+
+    /**
+     * @return {@link SourceStatistics} recording events of this {@link Registrar}, null if none
+     */
+    @Nullable
+    final SourceStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    @Override
+    public final void dispose() {
+        LifeCycles.dispose(this.messageSource);
     }
 
 }
\ No newline at end of file
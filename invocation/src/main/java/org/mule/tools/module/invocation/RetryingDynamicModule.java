@@ -18,16 +18,30 @@
 
 package org.mule.tools.module.invocation;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 
+import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
 import org.mule.api.lifecycle.InitialisationException;
-import org.mule.api.processor.MessageProcessor;
 import org.mule.api.retry.RetryCallback;
 import org.mule.api.retry.RetryContext;
 import org.mule.api.retry.RetryPolicyTemplate;
 import org.mule.retry.policies.AbstractPolicyTemplate;
+import org.mule.retry.policies.SimpleRetryPolicyTemplate;
+import org.mule.tools.module.invocation.statistics.ProcessorStatistics;
 import org.mule.tools.module.model.Module;
 
 /**
@@ -42,26 +56,51 @@ public class RetryingDynamicModule extends DynamicModule {
     }
 
     public RetryingDynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> connectionParameters, final int retryMax, final AbstractPolicyTemplate retryPolicyTemplate) {
-        super(classLoader, module, overriddenParameters, connectionParameters, retryMax);
+        this(classLoader, module, overriddenParameters, connectionParameters, retryMax, PoolConfiguration.DEFAULT, retryPolicyTemplate);
+    }
+
+    public RetryingDynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> connectionParameters, final int retryMax, final PoolConfiguration poolConfiguration, final AbstractPolicyTemplate retryPolicyTemplate) {
+        this(classLoader, module, overriddenParameters, connectionParameters, retryMax, poolConfiguration, null, retryPolicyTemplate);
+    }
+
+    public RetryingDynamicModule(final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> connectionParameters, final int retryMax, final PoolConfiguration poolConfiguration, @Nullable final MuleContext context, final AbstractPolicyTemplate retryPolicyTemplate) {
+        //Validated before DynamicModule allocates anything.
+        this(RetryingDynamicModule.checkRetryPolicyTemplate(retryPolicyTemplate), classLoader, module, overriddenParameters, connectionParameters, retryMax, poolConfiguration, context);
+    }
+
+    private RetryingDynamicModule(final AbstractPolicyTemplate retryPolicyTemplate, final ClassLoader classLoader, final Module module, final Map<String, Object> overriddenParameters, final Map<String, Object> connectionParameters, final int retryMax, final PoolConfiguration poolConfiguration, @Nullable final MuleContext context) {
+        super(classLoader, module, overriddenParameters, connectionParameters, retryMax, poolConfiguration, context);
+
+        retryPolicyTemplate.setMuleContext(getMuleContext());
+        this.retryPolicyTemplate = retryPolicyTemplate;
+    }
 
+    private static AbstractPolicyTemplate checkRetryPolicyTemplate(final AbstractPolicyTemplate retryPolicyTemplate) {
         if (retryPolicyTemplate == null) {
             throw new IllegalArgumentException("null retryPolicyTemplate");
         }
-        retryPolicyTemplate.setMuleContext(getMuleContext());
-        this.retryPolicyTemplate = retryPolicyTemplate;
+        return retryPolicyTemplate;
     }
 
+    /**
+     * Underlying {@link Invoker} is borrowed (and initialised if needed) before reaching the retry loop: no InitialisationException will be thrown in retry loop.
+     */
     @Override
-    protected <T> T invoke(final MessageProcessor messageProcessor, final Map<String, Object> parameters) throws InitialisationException, MuleException {
-        //Force underlying Invoker initialsation. Ensure no InitialisationException won't be thrown in retry loop.
-        getInvoker(messageProcessor);
-
+    protected <T> T invoke(final Invoker invoker, final Map<String, Object> parameters) throws InitialisationException, MuleException {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicLong firstFailure = new AtomicLong();
         try {
             final AtomicReference<T> result = new AtomicReference<T>();
             final RetryContext retryContext = this.retryPolicyTemplate.execute(new RetryCallback() {
                 @Override
                 public void doWork(final RetryContext context) throws Exception {
-                    result.set((T) RetryingDynamicModule.super.invoke(messageProcessor, parameters));
+                    attempts.incrementAndGet();
+                    try {
+                        result.set(RetryingDynamicModule.super.<T>invoke(invoker, parameters));
+                    } catch (Exception e) {
+                        firstFailure.compareAndSet(0, System.nanoTime());
+                        throw e;
+                    }
                 }
                 @Override
                 public String getWorkDescription() {
@@ -78,7 +117,114 @@ public class RetryingDynamicModule extends DynamicModule {
             throw e;
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            RetryingDynamicModule.recordRetries(invoker.getStatistics(), attempts.get() - 1, firstFailure.get());
+        }
+    }
+
+    /**
+     * @param statistics
+     * @param retries
+     * @param firstFailure {@link System#nanoTime()} of first failure
+     */
+    private static void recordRetries(final ProcessorStatistics statistics, final int retries, final long firstFailure) {
+        if (statistics != null && retries > 0) {
+            statistics.recordRetryTime(retries, System.nanoTime() - firstFailure);
+        }
+    }
+
+    /**
+     * When relying on a {@link SimpleRetryPolicyTemplate} retries are scheduled after its frequency instead of sleeping: no `executor` thread is blocked during backoff.
+     * Retries are then submitted to `executor` from {@link #getHandOffExecutor()} so that a full `executor` does not block the scheduler.
+     * Other {@link RetryPolicyTemplate}s are executed as-is on `executor`.
+     */
+    @Override
+    protected <T> ListenableFuture<T> invokeAsync(final InvokerPool invokerPool, final Map<String, Object> parameters, final ListeningExecutorService executor) {
+        if (!(this.retryPolicyTemplate instanceof SimpleRetryPolicyTemplate)) {
+            return super.<T>invokeAsync(invokerPool, parameters, executor);
+        }
+
+        final SimpleRetryPolicyTemplate simpleRetryPolicyTemplate = SimpleRetryPolicyTemplate.class.cast(this.retryPolicyTemplate);
+        final SettableFuture<T> result = SettableFuture.create();
+        attempt(invokerPool, parameters, executor, simpleRetryPolicyTemplate.getCount(), simpleRetryPolicyTemplate.getFrequency(), 0, 0, result);
+        return result;
+    }
+
+    /**
+     * Hand next attempt off to {@link #getHandOffExecutor()}: submitting to `executor` may block (e.g. a bounded executor) and must not stall the shared scheduler thread.
+     * @param lastFailure failure of previous attempt, used to complete `result` if next attempt cannot be handed off
+     */
+    private <T> void retry(final InvokerPool invokerPool, final Map<String, Object> parameters, final ListeningExecutorService executor, final int count, final long frequency, final int retries, final long firstFailure, final SettableFuture<T> result, final Throwable lastFailure) {
+        try {
+            getHandOffExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    attempt(invokerPool, parameters, executor, count, frequency, retries, firstFailure, result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //DynamicModule has been disposed.
+            RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries - 1, firstFailure);
+            result.setException(lastFailure);
+        }
+    }
+
+    /**
+     * Invoke once on `executor` then either complete `result` or schedule next attempt.
+     * @param firstFailure {@link System#nanoTime()} of first failure, 0 if none yet
+     */
+    private <T> void attempt(final InvokerPool invokerPool, final Map<String, Object> parameters, final ListeningExecutorService executor, final int count, final long frequency, final int retries, final long firstFailure, final SettableFuture<T> result) {
+        final ListenableFuture<T> future;
+        try {
+            future = executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    final Invoker invoker = invokerPool.borrow();
+                    try {
+                        return RetryingDynamicModule.super.<T>invoke(invoker, parameters);
+                    } finally {
+                        invokerPool.release(invoker);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries, firstFailure);
+            result.setException(e);
+            return;
         }
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(final T value) {
+                RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries, firstFailure);
+                result.set(value);
+            }
+            @Override
+            public void onFailure(final Throwable throwable) {
+                final long failure = firstFailure != 0 ? firstFailure : System.nanoTime();
+                if (result.isCancelled()) {
+                    RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries, failure);
+                    return;
+                }
+                if (count != SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER && retries >= count) {
+                    RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries, failure);
+                    result.setException(throwable);
+                    return;
+                }
+
+                try {
+                    getScheduler().schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            retry(invokerPool, parameters, executor, count, frequency, retries+1, failure, result, throwable);
+                        }
+                    }, frequency, TimeUnit.MILLISECONDS);
+                } catch (RuntimeException e) {
+                    //Scheduler has been shutdown.
+                    RetryingDynamicModule.recordRetries(invokerPool.getStatistics(), retries, failure);
+                    result.setException(throwable);
+                }
+            }
+        });
     }
 
 }
\ No newline at end of file
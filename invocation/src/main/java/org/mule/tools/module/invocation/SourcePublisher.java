@@ -0,0 +1,334 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.lifecycle.Stoppable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reactive-streams {@link Publisher} of events fired by a {@link org.mule.tools.module.model.Source}.
+ * <br />
+ * Each {@link Subscriber} gets its own {@link Subscription}, created on first {@link org.reactivestreams.Subscription#request(long)}.
+ * Events not yet requested are buffered; once `bufferSize` events are buffered the underlying {@link org.mule.api.source.MessageSource} is paused
+ * (see {@link Registrar#pause()}) and resumed when the {@link Subscriber} has consumed half of them.
+ * Pausing relies on {@link org.mule.api.source.MessageSource} stop/start: polling sources stop polling, others may still fire events already in flight.
+ * <br />
+ * {@link Subscriber#onComplete()} is signalled once buffered events are delivered when the {@link Subscription} is stopped (e.g. {@link DynamicModule#dispose()}).
+ */
+public final class SourcePublisher implements Publisher<MuleEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourcePublisher.class.getPackage().getName());
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /**
+     * State of a {@link Subscriber}. Signals are serialized through a work-in-progress counter: whichever thread increments it from 0 delivers events.
+     * {@link Subscription} lifecycle (subscribe, pause, resume, unsubscribe) runs on {@link DynamicModule#getScheduler()} to keep it ordered and off {@link org.mule.api.source.MessageSource} threads.
+     */
+    private final class SourceSubscription implements org.reactivestreams.Subscription, DynamicModule.Listener, Stoppable {
+
+        private final Subscriber<? super MuleEvent> subscriber;
+        private final Queue<MuleEvent> queue = new ConcurrentLinkedQueue<MuleEvent>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean paused = new AtomicBoolean();
+        private volatile Subscription subscription;
+        private volatile boolean released;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable error;
+        //Only accessed by the thread delivering events.
+        private boolean terminated;
+
+        private SourceSubscription(final Subscriber<? super MuleEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void control(final Runnable task) {
+            try {
+                SourcePublisher.this.dynamicModule.getScheduler().execute(task);
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        }
+
+        private void startSource() {
+            control(new Runnable() {
+                @Override
+                public void run() {
+                    if (SourceSubscription.this.released) {
+                        return;
+                    }
+                    try {
+                        SourceSubscription.this.subscription = SourcePublisher.this.dynamicModule.subscribe(SourcePublisher.this.sourceName, SourcePublisher.this.overriddenParameters, SourceSubscription.this);
+                    } catch (Exception e) {
+                        fail(e);
+                        return;
+                    }
+                    if (SourceSubscription.this.released) {
+                        unsubscribe();
+                    }
+                }
+            });
+        }
+
+        private void pauseSource() {
+            control(new Runnable() {
+                @Override
+                public void run() {
+                    final Subscription currentSubscription = SourceSubscription.this.subscription;
+                    if (currentSubscription == null || SourceSubscription.this.released) {
+                        return;
+                    }
+                    try {
+                        currentSubscription.getRegistrar().pause();
+                    } catch (MuleException e) {
+                        fail(e);
+                    }
+                }
+            });
+        }
+
+        private void resumeSource() {
+            control(new Runnable() {
+                @Override
+                public void run() {
+                    final Subscription currentSubscription = SourceSubscription.this.subscription;
+                    if (currentSubscription == null || SourceSubscription.this.released) {
+                        return;
+                    }
+                    try {
+                        currentSubscription.getRegistrar().resume();
+                    } catch (MuleException e) {
+                        fail(e);
+                    }
+                }
+            });
+        }
+
+        private void releaseSource() {
+            this.released = true;
+            control(new Runnable() {
+                @Override
+                public void run() {
+                    unsubscribe();
+                }
+            });
+        }
+
+        private void unsubscribe() {
+            final Subscription currentSubscription = this.subscription;
+            if (currentSubscription == null) {
+                return;
+            }
+            try {
+                SourcePublisher.this.dynamicModule.unsubscribe(currentSubscription);
+            } catch (MuleException e) {
+                if (SourcePublisher.LOGGER.isWarnEnabled()) {
+                    SourcePublisher.LOGGER.warn("Got exception while unsubscribing <"+currentSubscription+">", e);
+                }
+            }
+        }
+
+        private void fail(final Throwable throwable) {
+            if (this.error == null) {
+                this.error = throwable;
+            }
+            if (!this.released) {
+                releaseSource();
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            while (true) {
+                if (this.cancelled || this.terminated) {
+                    this.queue.clear();
+                    return;
+                }
+
+                final long currentRequested = this.requested.get();
+                long emitted = 0;
+                while (emitted != currentRequested) {
+                    final MuleEvent event = this.queue.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    this.buffered.decrementAndGet();
+                    try {
+                        this.subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        if (SourcePublisher.LOGGER.isWarnEnabled()) {
+                            SourcePublisher.LOGGER.warn("Got exception from <"+this.subscriber+"> while delivering <"+event+">; cancelling", e);
+                        }
+                        cancel();
+                        return;
+                    }
+                    emitted++;
+                }
+                if (emitted > 0 && currentRequested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+
+                if (this.error != null) {
+                    this.terminated = true;
+                    this.subscriber.onError(this.error);
+                    continue;
+                }
+                if (this.done && this.queue.isEmpty()) {
+                    this.terminated = true;
+                    this.subscriber.onComplete();
+                    continue;
+                }
+                if (this.buffered.get() <= SourcePublisher.this.bufferSize / 2 && this.requested.get() > 0 && this.paused.compareAndSet(true, false)) {
+                    resumeSource();
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested <"+n+"> events; must be > 0"));
+                return;
+            }
+
+            while (true) {
+                final long current = this.requested.get();
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+                final long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                if (this.requested.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+            if (this.started.compareAndSet(false, true)) {
+                startSource();
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            if (!this.released) {
+                releaseSource();
+            }
+            drain();
+        }
+
+        @Override
+        public void onEvent(final MuleEvent event) {
+            if (this.released) {
+                return;
+            }
+
+            this.queue.offer(event);
+            if (this.buffered.incrementAndGet() >= SourcePublisher.this.bufferSize && this.paused.compareAndSet(false, true)) {
+                pauseSource();
+            }
+            drain();
+        }
+
+        /**
+         * Called when underlying {@link Subscription} is stopped: complete once buffered events are delivered.
+         */
+        @Override
+        public void stop() {
+            this.done = true;
+            drain();
+        }
+
+    }
+
+    private final DynamicModule dynamicModule;
+    private final String sourceName;
+    private final Map<String, Object> overriddenParameters;
+    private final int bufferSize;
+
+    SourcePublisher(final DynamicModule dynamicModule, final String sourceName, final Map<String, Object> overriddenParameters, final int bufferSize) {
+        if (dynamicModule == null) {
+            throw new IllegalArgumentException("null dynamicModule");
+        }
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+        if (overriddenParameters == null) {
+            throw new IllegalArgumentException("null overriddenParameters");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be > 0");
+        }
+
+        this.dynamicModule = dynamicModule;
+        this.sourceName = sourceName;
+        this.overriddenParameters = new HashMap<String, Object>(overriddenParameters);
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super MuleEvent> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("null subscriber");
+        }
+
+        subscriber.onSubscribe(new SourceSubscription(subscriber));
+    }
+
+    public String getSourceName() {
+        return this.sourceName;
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    @Override
+    public String toString() {
+        return "sourceName: <"+this.sourceName+"> bufferSize: <"+this.bufferSize+">";
+    }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.lifecycle.Stoppable;
+import org.mule.tools.module.helper.LifeCycles;
+import org.mule.tools.module.invocation.statistics.SourceStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A subscription to a {@link org.mule.tools.module.model.Source}, backed by its own {@link Registrar} hence its own {@link org.mule.api.source.MessageSource} and parameters.
+ * <br />
+ * Events are fanned out to all current {@link DynamicModule.Listener}s: the same {@link MuleEvent} instance is handed to each of them, in registration order.
+ * Each listener execution is recorded separately.
+ * Listeners can be added or removed while events are delivered.
+ *
+ * @see DynamicModule#subscribe(java.lang.String, java.util.Map, org.mule.tools.module.invocation.DynamicModule.Listener)
+ * @see DynamicModule#unsubscribe(org.mule.tools.module.invocation.Subscription)
+ */
+public final class Subscription {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Subscription.class.getPackage().getName());
+
+    /**
+     * {@link DynamicModule.Listener} delivering events to all {@link Subscription} listeners.
+     */
+    private static final class FanOutListener implements Registrar.TimedListener, Stoppable {
+
+        //Reads (one per event) vastly outnumber writes.
+        private final List<DynamicModule.Listener> listeners = new CopyOnWriteArrayList<DynamicModule.Listener>();
+        private final SourceStatistics statistics;
+
+        private FanOutListener(@Nullable final SourceStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        private void deliver(final DynamicModule.Listener listener, final MuleEvent event) {
+            if (this.statistics == null || listener instanceof Registrar.TimedListener) {
+                listener.onEvent(event);
+                return;
+            }
+
+            final long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                listener.onEvent(event);
+                failed = false;
+            } finally {
+                this.statistics.recordListenerTime(System.nanoTime() - start, failed);
+            }
+        }
+
+        @Override
+        public void onEvent(final MuleEvent event) {
+            RuntimeException failure = null;
+            for (final DynamicModule.Listener listener : this.listeners) {
+                try {
+                    deliver(listener, event);
+                } catch (RuntimeException e) {
+                    if (Subscription.LOGGER.isWarnEnabled()) {
+                        Subscription.LOGGER.warn("Got exception while delivering <"+event+"> to <"+listener+">", e);
+                    }
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            //Report the failure to the MessageSource once all listeners have been notified.
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void stop() throws MuleException {
+            for (final DynamicModule.Listener listener : this.listeners) {
+                LifeCycles.stop(listener);
+            }
+        }
+
+    }
+
+    private final String id;
+    private final String sourceName;
+    private final Registrar registrar;
+    private final FanOutListener fanOutListener;
+
+    Subscription(final String id, final String sourceName, final Registrar registrar, final DynamicModule.Listener listener) {
+        if (id == null) {
+            throw new IllegalArgumentException("null id");
+        }
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+        if (registrar == null) {
+            throw new IllegalArgumentException("null registrar");
+        }
+
+        this.id = id;
+        this.sourceName = sourceName;
+        this.registrar = registrar;
+        this.fanOutListener = new FanOutListener(registrar.getStatistics());
+        addListener(listener);
+    }
+
+    final Registrar getRegistrar() {
+        return this.registrar;
+    }
+
+    /**
+     * @return {@link DynamicModule.Listener} to be registered on {@link Registrar}
+     */
+    final DynamicModule.Listener getFanOutListener() {
+        return this.fanOutListener;
+    }
+
+    /**
+     * @return unique identifier of this {@link Subscription} in its {@link DynamicModule}
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    public String getSourceName() {
+        return this.sourceName;
+    }
+
+    /**
+     * Add `listener`; it receives events fired from now on.
+     * @param listener
+     */
+    public void addListener(final DynamicModule.Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("null listener");
+        }
+
+        this.fanOutListener.listeners.add(listener);
+    }
+
+    /**
+     * Remove `listener` and stop it if {@link Stoppable}. The underlying {@link org.mule.api.source.MessageSource} keeps running even if no listener remains.
+     * @param listener
+     * @return true if `listener` was registered
+     * @throws MuleException
+     */
+    public boolean removeListener(final DynamicModule.Listener listener) throws MuleException {
+        if (listener == null) {
+            throw new IllegalArgumentException("null listener");
+        }
+
+        if (!this.fanOutListener.listeners.remove(listener)) {
+            return false;
+        }
+        LifeCycles.stop(listener);
+        return true;
+    }
+
+    /**
+     * @return an immutable snapshot of current listeners
+     */
+    public List<DynamicModule.Listener> getListeners() {
+        return Collections.unmodifiableList(new ArrayList<DynamicModule.Listener>(this.fanOutListener.listeners));
+    }
+
+    @Override
+    public String toString() {
+        return "id: <"+this.id+"> sourceName: <"+this.sourceName+"> listeners: <"+this.fanOutListener.listeners.size()+">";
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of positive long values (typically durations in nanoseconds).
+ * <br />
+ * Values are recorded in log-linear buckets: each power of 2 is split in {@link #SUB_BUCKET_COUNT} linear sub-buckets giving a relative error below 1/{@link #SUB_BUCKET_COUNT}.
+ * Recording is a couple of atomic increments and never blocks; reads are not atomic snapshots but are consistent enough for monitoring.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKET_COUNT = 1 << Histogram.SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - Histogram.SUB_BUCKET_BITS + 1) * Histogram.SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(Histogram.BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value
+     * @return index of bucket `value` belongs to
+     */
+    static int bucketIndex(final long value) {
+        if (value < Histogram.SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - Histogram.SUB_BUCKET_BITS;
+        return (shift + 1) * Histogram.SUB_BUCKET_COUNT + (int) ((value >>> shift) & (Histogram.SUB_BUCKET_COUNT - 1));
+    }
+
+    /**
+     * @param index
+     * @return highest value belonging to bucket `index`
+     */
+    static long highestValue(final int index) {
+        if (index < Histogram.SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / Histogram.SUB_BUCKET_COUNT - 1;
+        final long lowest = (long) (Histogram.SUB_BUCKET_COUNT + index % Histogram.SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * @param value negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long safeValue = Math.max(0, value);
+        this.counts.incrementAndGet(Histogram.bucketIndex(safeValue));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(safeValue);
+        long currentMax = this.max.get();
+        while (safeValue > currentMax && !this.max.compareAndSet(currentMax, safeValue)) {
+            currentMax = this.max.get();
+        }
+    }
+
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * @return mean of recorded values, 0 if none
+     */
+    public long getMean() {
+        final long currentCount = this.count.get();
+        return currentCount == 0 ? 0 : this.sum.get() / currentCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return value below which `percentile` % of recorded values fall (within bucket precision), 0 if none
+     */
+    public long getPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        final long currentCount = this.count.get();
+        if (currentCount == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * currentCount));
+        long cumulated = 0;
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i++) {
+            cumulated += this.counts.get(i);
+            if (cumulated >= target) {
+                return Math.min(Histogram.highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Reset all recorded values. Values recorded concurrently might be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < Histogram.BUCKET_COUNT; i++) {
+            this.counts.set(i, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count: <"+getCount()+"> mean: <"+getMean()+"> p50: <"+getPercentile(50)+"> p99: <"+getPercentile(99)+"> max: <"+getMax()+">";
+    }
+
+}
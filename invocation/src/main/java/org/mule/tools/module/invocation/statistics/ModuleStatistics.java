@@ -0,0 +1,199 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statistics of a {@link org.mule.tools.module.invocation.DynamicModule}.
+ * <br />
+ * Optionally exposed through JMX: once {@link #registerMBeans(javax.management.MBeanServer)} has been called all current and future statistics are registered
+ * as `org.mule.tools.module:type=&lt;type&gt;,module=&lt;module&gt;,name=&lt;name&gt;`.
+ */
+public final class ModuleStatistics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleStatistics.class.getPackage().getName());
+
+    public static final String JMX_DOMAIN = "org.mule.tools.module";
+    private static final String PROCESSOR_TYPE = "Processor";
+    private static final String SOURCE_TYPE = "Source";
+
+    private final String moduleName;
+    private final ConcurrentMap<String, ProcessorStatistics> processorStatistics = new ConcurrentHashMap<String, ProcessorStatistics>();
+    private final ConcurrentMap<String, SourceStatistics> sourceStatistics = new ConcurrentHashMap<String, SourceStatistics>();
+    private final Map<ObjectName, Object> mbeans = new HashMap<ObjectName, Object>();
+    private volatile MBeanServer mbeanServer;
+
+    /**
+     * @param moduleName unique name of the module instance; used to build JMX names
+     */
+    public ModuleStatistics(final String moduleName) {
+        if (moduleName == null) {
+            throw new IllegalArgumentException("null moduleName");
+        }
+
+        this.moduleName = moduleName;
+    }
+
+    public String getModuleName() {
+        return this.moduleName;
+    }
+
+    /**
+     * @param processorName
+     * @return {@link ProcessorStatistics} for `processorName`, created if needed
+     */
+    public ProcessorStatistics getProcessorStatistics(final String processorName) {
+        if (processorName == null) {
+            throw new IllegalArgumentException("null processorName");
+        }
+
+        ProcessorStatistics statistics = this.processorStatistics.get(processorName);
+        if (statistics == null) {
+            final ProcessorStatistics newStatistics = new ProcessorStatistics(processorName);
+            statistics = this.processorStatistics.putIfAbsent(processorName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+                registerMBean(ModuleStatistics.PROCESSOR_TYPE, processorName, statistics);
+            }
+        }
+        return statistics;
+    }
+
+    public Collection<ProcessorStatistics> getAllProcessorStatistics() {
+        return Collections.unmodifiableCollection(this.processorStatistics.values());
+    }
+
+    /**
+     * @param sourceName
+     * @return {@link SourceStatistics} for `sourceName`, created if needed
+     */
+    public SourceStatistics getSourceStatistics(final String sourceName) {
+        if (sourceName == null) {
+            throw new IllegalArgumentException("null sourceName");
+        }
+
+        SourceStatistics statistics = this.sourceStatistics.get(sourceName);
+        if (statistics == null) {
+            final SourceStatistics newStatistics = new SourceStatistics(sourceName);
+            statistics = this.sourceStatistics.putIfAbsent(sourceName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+                registerMBean(ModuleStatistics.SOURCE_TYPE, sourceName, statistics);
+            }
+        }
+        return statistics;
+    }
+
+    public Collection<SourceStatistics> getAllSourceStatistics() {
+        return Collections.unmodifiableCollection(this.sourceStatistics.values());
+    }
+
+    /**
+     * @param type
+     * @param name
+     * @return JMX {@link ObjectName} of statistics `name` of type `type`
+     */
+    protected final ObjectName objectName(final String type, final String name) {
+        try {
+            return new ObjectName(ModuleStatistics.JMX_DOMAIN+":type="+type+",module="+ObjectName.quote(this.moduleName)+",name="+ObjectName.quote(name));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private synchronized void registerMBean(final String type, final String name, final Object mbean) {
+        final MBeanServer server = this.mbeanServer;
+        if (server == null) {
+            return;
+        }
+
+        final ObjectName objectName = objectName(type, name);
+        if (this.mbeans.containsKey(objectName)) {
+            return;
+        }
+        try {
+            server.registerMBean(mbean, objectName);
+            this.mbeans.put(objectName, mbean);
+        } catch (Exception e) {
+            if (ModuleStatistics.LOGGER.isWarnEnabled()) {
+                ModuleStatistics.LOGGER.warn("Failed to register MBean <"+objectName+">", e);
+            }
+        }
+    }
+
+    /**
+     * Register all statistics in `server`, including statistics created afterward.
+     * @param server
+     */
+    public synchronized void registerMBeans(final MBeanServer server) {
+        if (server == null) {
+            throw new IllegalArgumentException("null server");
+        }
+        if (this.mbeanServer != null) {
+            throw new IllegalStateException("MBeans already registered");
+        }
+
+        this.mbeanServer = server;
+        for (final ProcessorStatistics statistics : this.processorStatistics.values()) {
+            registerMBean(ModuleStatistics.PROCESSOR_TYPE, statistics.getName(), statistics);
+        }
+        for (final SourceStatistics statistics : this.sourceStatistics.values()) {
+            registerMBean(ModuleStatistics.SOURCE_TYPE, statistics.getName(), statistics);
+        }
+    }
+
+    /**
+     * Unregister all previously registered statistics.
+     */
+    public synchronized void unregisterMBeans() {
+        final MBeanServer server = this.mbeanServer;
+        if (server == null) {
+            return;
+        }
+
+        this.mbeanServer = null;
+        for (final ObjectName objectName : this.mbeans.keySet()) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (Exception e) {
+                if (ModuleStatistics.LOGGER.isWarnEnabled()) {
+                    ModuleStatistics.LOGGER.warn("Failed to unregister MBean <"+objectName+">", e);
+                }
+            }
+        }
+        this.mbeans.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "moduleName: <"+this.moduleName+"> processors: <"+this.processorStatistics.values()+"> sources: <"+this.sourceStatistics.values()+">";
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invocation statistics of a {@link org.mule.tools.module.model.Processor}:
+ * <ul>
+ *  <li>calls, errors and in-flight calls</li>
+ *  <li>binding time: validating and merging parameters</li>
+ *  <li>process time: pushing parameters to the {@link org.mule.api.processor.MessageProcessor} and processing the event</li>
+ *  <li>retry time: time spent from first failure to final outcome of retried invocations</li>
+ * </ul>
+ * All recording methods are lock-free. All times are in nanoseconds.
+ */
+public final class ProcessorStatistics implements ProcessorStatisticsMBean {
+
+    private final String name;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong retries = new AtomicLong();
+    private final Histogram bindingTime = new Histogram();
+    private final Histogram processTime = new Histogram();
+    private final Histogram retryTime = new Histogram();
+
+    public ProcessorStatistics(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("null name");
+        }
+
+        this.name = name;
+    }
+
+    /**
+     * Record the start of a call. Must be followed by {@link #callCompleted(boolean)}.
+     */
+    public void callStarted() {
+        this.calls.incrementAndGet();
+        this.inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param failed
+     */
+    public void callCompleted(final boolean failed) {
+        this.inFlight.decrementAndGet();
+        if (failed) {
+            this.errors.incrementAndGet();
+        }
+    }
+
+    public void recordBindingTime(final long time) {
+        this.bindingTime.record(time);
+    }
+
+    public void recordProcessTime(final long time) {
+        this.processTime.record(time);
+    }
+
+    /**
+     * @param retries number of retries performed
+     * @param time
+     */
+    public void recordRetryTime(final int retries, final long time) {
+        this.retries.addAndGet(retries);
+        this.retryTime.record(time);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public long getCalls() {
+        return this.calls.get();
+    }
+
+    @Override
+    public long getErrors() {
+        return this.errors.get();
+    }
+
+    @Override
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    @Override
+    public long getRetries() {
+        return this.retries.get();
+    }
+
+    public Histogram getBindingTime() {
+        return this.bindingTime;
+    }
+
+    public Histogram getProcessTime() {
+        return this.processTime;
+    }
+
+    public Histogram getRetryTime() {
+        return this.retryTime;
+    }
+
+    @Override
+    public long getBindingTimeMean() {
+        return this.bindingTime.getMean();
+    }
+
+    @Override
+    public long getBindingTime99thPercentile() {
+        return this.bindingTime.getPercentile(99);
+    }
+
+    @Override
+    public long getProcessTimeMean() {
+        return this.processTime.getMean();
+    }
+
+    @Override
+    public long getProcessTime50thPercentile() {
+        return this.processTime.getPercentile(50);
+    }
+
+    @Override
+    public long getProcessTime99thPercentile() {
+        return this.processTime.getPercentile(99);
+    }
+
+    @Override
+    public long getProcessTimeMax() {
+        return this.processTime.getMax();
+    }
+
+    @Override
+    public long getRetryTimeMean() {
+        return this.retryTime.getMean();
+    }
+
+    @Override
+    public long getRetryTime99thPercentile() {
+        return this.retryTime.getPercentile(99);
+    }
+
+    /**
+     * Reset all counters but in-flight calls.
+     */
+    @Override
+    public void reset() {
+        this.calls.set(0);
+        this.errors.set(0);
+        this.retries.set(0);
+        this.bindingTime.reset();
+        this.processTime.reset();
+        this.retryTime.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "name: <"+this.name+"> calls: <"+getCalls()+"> errors: <"+getErrors()+"> inFlight: <"+getInFlight()+"> bindingTime: <"+this.bindingTime+"> processTime: <"+this.processTime+"> retryTime: <"+this.retryTime+">";
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+/**
+ * JMX view of {@link ProcessorStatistics}. All times are in nanoseconds.
+ */
+public interface ProcessorStatisticsMBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    int getInFlight();
+
+    long getBindingTimeMean();
+
+    long getBindingTime99thPercentile();
+
+    long getProcessTimeMean();
+
+    long getProcessTime50thPercentile();
+
+    long getProcessTime99thPercentile();
+
+    long getProcessTimeMax();
+
+    long getRetries();
+
+    long getRetryTimeMean();
+
+    long getRetryTime99thPercentile();
+
+    void reset();
+
+}
@@ -0,0 +1,91 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free exponentially weighted moving average of an event rate over roughly one minute.
+ * <br />
+ * Events are counted on {@link #mark()}; the average is updated every {@link #TICK_INTERVAL} by whichever thread first notices the interval elapsed.
+ */
+final class Rate {
+
+    private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    private static final double ALPHA = 1 - Math.exp(-5 / 60.0);
+
+    private final AtomicLong uncounted = new AtomicLong();
+    private final AtomicLong lastTick = new AtomicLong(System.nanoTime());
+    //Only updated by the thread winning lastTick update.
+    private volatile double rate = 0;
+    private volatile boolean initialised = false;
+
+    public void mark() {
+        tickIfNecessary();
+        this.uncounted.incrementAndGet();
+    }
+
+    /**
+     * @return events per second
+     */
+    public double getRate() {
+        tickIfNecessary();
+        return this.rate * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public void reset() {
+        this.uncounted.set(0);
+        this.rate = 0;
+        this.initialised = false;
+    }
+
+    private void tickIfNecessary() {
+        final long oldTick = this.lastTick.get();
+        final long now = System.nanoTime();
+        final long age = now - oldTick;
+        if (age < Rate.TICK_INTERVAL) {
+            return;
+        }
+
+        if (this.lastTick.compareAndSet(oldTick, now - age % Rate.TICK_INTERVAL)) {
+            tick(age / Rate.TICK_INTERVAL);
+        }
+    }
+
+    /**
+     * @param ticks number of elapsed intervals; events counted so far are attributed to the first one
+     */
+    private void tick(final long ticks) {
+        final double instantRate = this.uncounted.getAndSet(0) / (double) Rate.TICK_INTERVAL;
+        double newRate;
+        if (this.initialised) {
+            newRate = this.rate + Rate.ALPHA * (instantRate - this.rate);
+        } else {
+            newRate = instantRate;
+            this.initialised = true;
+        }
+        if (ticks > 1) {
+            //Following intervals had no event.
+            newRate *= Math.pow(1 - Rate.ALPHA, ticks - 1);
+        }
+        this.rate = newRate;
+    }
+
+}
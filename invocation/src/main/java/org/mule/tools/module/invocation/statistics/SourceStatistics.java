@@ -0,0 +1,207 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event statistics of a {@link org.mule.tools.module.model.Source} subscription:
+ * <ul>
+ *  <li>received events and their rate (events per second, averaged over roughly one minute)</li>
+ *  <li>listener execution time and exceptions</li>
+ *  <li>events dropped by a {@link org.mule.tools.module.invocation.DispatchingListener}</li>
+ *  <li>time since last event, to detect stalled sources</li>
+ * </ul>
+ * All recording methods are lock-free. Listener times are in nanoseconds.
+ */
+public final class SourceStatistics implements SourceStatisticsMBean {
+
+    /**
+     * Value of {@link #getTimeSinceLastEvent()} when no event has been received.
+     */
+    public static final long NO_EVENT = -1;
+
+    private final String name;
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong exceptions = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong lastEventTime = new AtomicLong(SourceStatistics.NO_EVENT);
+    private final Rate eventRate = new Rate();
+    private final Histogram listenerTime = new Histogram();
+    private final AtomicLong batches = new AtomicLong();
+    private final Histogram batchSize = new Histogram();
+    private final Histogram batchTime = new Histogram();
+
+    public SourceStatistics(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("null name");
+        }
+
+        this.name = name;
+    }
+
+    /**
+     * Record reception of an event.
+     */
+    public void eventReceived() {
+        this.events.incrementAndGet();
+        this.eventRate.mark();
+        this.lastEventTime.set(System.currentTimeMillis());
+    }
+
+    /**
+     * @param time listener execution time
+     * @param failed true if listener threw an exception
+     */
+    public void recordListenerTime(final long time, final boolean failed) {
+        this.listenerTime.record(time);
+        if (failed) {
+            this.exceptions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record delivery of a batch of events.
+     * @param size number of events in the batch
+     * @param time batch listener execution time
+     * @param failed true if batch listener threw an exception
+     */
+    public void recordBatch(final int size, final long time, final boolean failed) {
+        this.batches.incrementAndGet();
+        this.batchSize.record(size);
+        this.batchTime.record(time);
+        if (failed) {
+            this.exceptions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record an event dropped before reaching the listener.
+     */
+    public void eventDropped() {
+        this.droppedEvents.incrementAndGet();
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public long getEvents() {
+        return this.events.get();
+    }
+
+    @Override
+    public long getExceptions() {
+        return this.exceptions.get();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    @Override
+    public double getEventRate() {
+        return this.eventRate.getRate();
+    }
+
+    public Histogram getListenerTime() {
+        return this.listenerTime;
+    }
+
+    @Override
+    public long getListenerTimeMean() {
+        return this.listenerTime.getMean();
+    }
+
+    @Override
+    public long getListenerTime99thPercentile() {
+        return this.listenerTime.getPercentile(99);
+    }
+
+    @Override
+    public long getListenerTimeMax() {
+        return this.listenerTime.getMax();
+    }
+
+    @Override
+    public long getBatches() {
+        return this.batches.get();
+    }
+
+    public Histogram getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public long getBatchSizeMean() {
+        return this.batchSize.getMean();
+    }
+
+    @Override
+    public long getBatchSizeMax() {
+        return this.batchSize.getMax();
+    }
+
+    public Histogram getBatchTime() {
+        return this.batchTime;
+    }
+
+    @Override
+    public long getBatchTimeMean() {
+        return this.batchTime.getMean();
+    }
+
+    @Override
+    public long getBatchTime99thPercentile() {
+        return this.batchTime.getPercentile(99);
+    }
+
+    /**
+     * @return time in milliseconds since last event, {@link #NO_EVENT} if none has been received
+     */
+    @Override
+    public long getTimeSinceLastEvent() {
+        final long time = this.lastEventTime.get();
+        return time == SourceStatistics.NO_EVENT ? SourceStatistics.NO_EVENT : System.currentTimeMillis() - time;
+    }
+
+    /**
+     * Reset all counters but time since last event.
+     */
+    @Override
+    public void reset() {
+        this.events.set(0);
+        this.exceptions.set(0);
+        this.droppedEvents.set(0);
+        this.eventRate.reset();
+        this.listenerTime.reset();
+        this.batches.set(0);
+        this.batchSize.reset();
+        this.batchTime.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "name: <"+this.name+"> events: <"+getEvents()+"> eventRate: <"+getEventRate()+"> exceptions: <"+getExceptions()+"> droppedEvents: <"+getDroppedEvents()+"> listenerTime: <"+this.listenerTime+"> batches: <"+getBatches()+"> batchSize: <"+this.batchSize+"> batchTime: <"+this.batchTime+"> timeSinceLastEvent: <"+getTimeSinceLastEvent()+">";
+    }
+
+}
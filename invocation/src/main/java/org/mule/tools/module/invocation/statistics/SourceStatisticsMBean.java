@@ -0,0 +1,56 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+/**
+ * JMX view of {@link SourceStatistics}. Listener times are in nanoseconds.
+ */
+public interface SourceStatisticsMBean {
+
+    String getName();
+
+    long getEvents();
+
+    long getExceptions();
+
+    long getDroppedEvents();
+
+    double getEventRate();
+
+    long getListenerTimeMean();
+
+    long getListenerTime99thPercentile();
+
+    long getListenerTimeMax();
+
+    long getBatches();
+
+    long getBatchSizeMean();
+
+    long getBatchSizeMax();
+
+    long getBatchTimeMean();
+
+    long getBatchTime99thPercentile();
+
+    long getTimeSinceLastEvent();
+
+    void reset();
+
+}
@@ -0,0 +1,319 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleException;
+import org.mule.api.context.MuleContextAware;
+import org.mule.api.lifecycle.Disposable;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.tools.module.helper.MuleContexts;
+
+public class InvokerPoolTest {
+
+    private static final int THREADS = 16;
+    private static final int INVOCATIONS = 500;
+    private static final String VALUE_PARAMETER_NAME = "value";
+
+    /**
+     * {@link MessageProcessor} echoing its `value` parameter. Yields between reading and publishing so that a shared instance would expose mixed up results.
+     */
+    public static class EchoMessageProcessor implements MessageProcessor, MuleContextAware {
+
+        //Set by Invoker
+        private int retryMax;
+        private Object value;
+
+        @Override
+        public void setMuleContext(final MuleContext context) {
+        }
+
+        public void setValue(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public MuleEvent process(final MuleEvent event) throws MuleException {
+            Thread.yield();
+            event.getMessage().setPayload(this.value);
+            return event;
+        }
+
+    }
+
+    /**
+     * {@link MessageProcessor} counting its instances created and disposed.
+     */
+    public static class CountingMessageProcessor implements MessageProcessor, MuleContextAware, Disposable {
+
+        private static final AtomicInteger CREATED = new AtomicInteger();
+        private static final AtomicInteger DISPOSED = new AtomicInteger();
+
+        //Set by Invoker
+        private int retryMax;
+
+        public CountingMessageProcessor() {
+            CountingMessageProcessor.CREATED.incrementAndGet();
+        }
+
+        @Override
+        public void setMuleContext(final MuleContext context) {
+        }
+
+        @Override
+        public MuleEvent process(final MuleEvent event) throws MuleException {
+            return event;
+        }
+
+        @Override
+        public void dispose() {
+            CountingMessageProcessor.DISPOSED.incrementAndGet();
+        }
+
+    }
+
+    private MuleContext context;
+    private InvokerPool invokerPool;
+
+    @Before
+    public void initialise() throws Exception {
+        this.context = MuleContexts.defaultMuleContext();
+        this.invokerPool = new InvokerPool(this.context, EchoMessageProcessor.class, 1);
+        CountingMessageProcessor.CREATED.set(0);
+        CountingMessageProcessor.DISPOSED.set(0);
+    }
+
+    private InvokerPool createCountingPool(final PoolConfiguration configuration) {
+        return new InvokerPool(this.context, CountingMessageProcessor.class, 1, configuration);
+    }
+
+    @After
+    public void dispose() {
+        this.invokerPool.dispose();
+        this.context.dispose();
+    }
+
+    @Test
+    public void concurrentInvocationsAreNotMixedUp() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(InvokerPoolTest.THREADS);
+        try {
+            final List<Future<Integer>> futures = new LinkedList<Future<Integer>>();
+            for (int i = 0; i < InvokerPoolTest.THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int mixedUp = 0;
+                        for (int j = 0; j < InvokerPoolTest.INVOCATIONS; j++) {
+                            final String value = thread+"-"+j;
+                            final Object result = InvokerPoolTest.this.invokerPool.invoke(Collections.<String, Object>singletonMap(InvokerPoolTest.VALUE_PARAMETER_NAME, value));
+                            if (!value.equals(result)) {
+                                mixedUp++;
+                            }
+                        }
+                        return mixedUp;
+                    }
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                Assert.assertEquals(0, future.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void minSizeInvokersAreCreatedUpfront() {
+        final InvokerPool pool = createCountingPool(new PoolConfiguration(2, 4, PoolConfiguration.NO_TIMEOUT, PoolConfiguration.NO_TIMEOUT));
+        try {
+            pool.ensureMinSize();
+            Assert.assertEquals(2, CountingMessageProcessor.CREATED.get());
+
+            final Invoker first = pool.borrow();
+            final Invoker second = pool.borrow();
+            Assert.assertEquals(2, CountingMessageProcessor.CREATED.get());
+            pool.release(first);
+            pool.release(second);
+        } finally {
+            pool.dispose();
+        }
+        Assert.assertEquals(2, CountingMessageProcessor.DISPOSED.get());
+    }
+
+    @Test
+    public void mostRecentlyReleasedInvokerIsReused() {
+        final InvokerPool pool = createCountingPool(PoolConfiguration.DEFAULT);
+        try {
+            final Invoker first = pool.borrow();
+            final Invoker second = pool.borrow();
+            pool.release(first);
+            pool.release(second);
+
+            Assert.assertSame(second, pool.borrow());
+            Assert.assertEquals(2, CountingMessageProcessor.CREATED.get());
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void borrowTimesOutWhenMaxSizeIsReached() {
+        final InvokerPool pool = createCountingPool(new PoolConfiguration(0, 2, PoolConfiguration.NO_TIMEOUT, 50));
+        try {
+            pool.borrow();
+            pool.borrow();
+            pool.borrow();
+        } finally {
+            Assert.assertEquals(2, CountingMessageProcessor.CREATED.get());
+            pool.dispose();
+        }
+    }
+
+    @Test
+    public void borrowWaitsForRelease() throws Exception {
+        final InvokerPool pool = createCountingPool(new PoolConfiguration(0, 1, PoolConfiguration.NO_TIMEOUT, 10*1000));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Invoker invoker = pool.borrow();
+            final Future<Invoker> future = executor.submit(new Callable<Invoker>() {
+                @Override
+                public Invoker call() {
+                    return pool.borrow();
+                }
+            });
+            Thread.sleep(50);
+            Assert.assertFalse(future.isDone());
+
+            pool.release(invoker);
+            Assert.assertSame(invoker, future.get());
+            Assert.assertEquals(1, CountingMessageProcessor.CREATED.get());
+        } finally {
+            executor.shutdownNow();
+            pool.dispose();
+        }
+    }
+
+    @Test
+    public void idleInvokersAreEvictedDownToMinSize() throws Exception {
+        final InvokerPool pool = createCountingPool(new PoolConfiguration(1, 4, 1, PoolConfiguration.NO_TIMEOUT));
+        try {
+            final Invoker first = pool.borrow();
+            final Invoker second = pool.borrow();
+            final Invoker third = pool.borrow();
+            pool.release(first);
+            pool.release(second);
+            pool.release(third);
+            Thread.sleep(20);
+
+            pool.evict();
+            Assert.assertEquals(3, CountingMessageProcessor.CREATED.get());
+            Assert.assertEquals(2, CountingMessageProcessor.DISPOSED.get());
+            //Least recently released Invokers are evicted first.
+            Assert.assertSame(third, pool.borrow());
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    @Test
+    public void invokersReleasedAfterDisposeAreDisposed() {
+        final InvokerPool pool = createCountingPool(PoolConfiguration.DEFAULT);
+        final Invoker invoker = pool.borrow();
+        pool.dispose();
+        Assert.assertEquals(0, CountingMessageProcessor.DISPOSED.get());
+
+        pool.release(invoker);
+        Assert.assertEquals(1, CountingMessageProcessor.DISPOSED.get());
+    }
+
+    @Test
+    public void invokersCreatedConcurrentlyWithDisposeAreDisposed() {
+        final InvokerPool pool = new InvokerPool(this.context, CountingMessageProcessor.class, 1, new PoolConfiguration(1, 1, PoolConfiguration.NO_TIMEOUT, PoolConfiguration.NO_TIMEOUT)) {
+            @Override
+            protected Invoker createInvoker() {
+                final Invoker invoker = super.createInvoker();
+                //Dispose while the Invoker is being created, before it is made idle.
+                dispose();
+                return invoker;
+            }
+        };
+        pool.ensureMinSize();
+        Assert.assertEquals(1, CountingMessageProcessor.CREATED.get());
+        Assert.assertEquals(1, CountingMessageProcessor.DISPOSED.get());
+    }
+
+    @Test
+    public void invokersReleasedConcurrentlyWithDisposeAreDisposed() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(InvokerPoolTest.THREADS + 1);
+        try {
+            for (int i = 0; i < InvokerPoolTest.INVOCATIONS; i++) {
+                final InvokerPool pool = createCountingPool(PoolConfiguration.DEFAULT);
+                final AtomicInteger ready = new AtomicInteger();
+                final List<Future<?>> futures = new LinkedList<Future<?>>();
+                for (int j = 0; j < InvokerPoolTest.THREADS; j++) {
+                    final Invoker invoker = pool.borrow();
+                    futures.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() {
+                            ready.incrementAndGet();
+                            while (ready.get() <= InvokerPoolTest.THREADS) {
+                                Thread.yield();
+                            }
+                            pool.release(invoker);
+                            return null;
+                        }
+                    }));
+                }
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        while (ready.get() < InvokerPoolTest.THREADS) {
+                            Thread.yield();
+                        }
+                        ready.incrementAndGet();
+                        pool.dispose();
+                        return null;
+                    }
+                }));
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            Assert.assertEquals(CountingMessageProcessor.CREATED.get(), CountingMessageProcessor.DISPOSED.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
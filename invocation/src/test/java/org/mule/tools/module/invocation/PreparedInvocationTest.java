@@ -0,0 +1,151 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package org.mule.tools.module.invocation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mule.api.MuleContext;
+import org.mule.tools.module.helper.MuleContexts;
+import org.mule.tools.module.model.Module;
+import org.mule.tools.module.model.Parameter;
+import org.mule.tools.module.model.Processor;
+import org.mule.tools.module.model.Source;
+import org.mule.tools.module.model.Transformer;
+
+public class PreparedInvocationTest {
+
+    private static final int INVOCATIONS = 20;
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final String VALUE_PARAMETER_NAME = "value";
+
+    private MuleContext context;
+    private DynamicModule dynamicModule;
+    private InvokerPool invokerPool;
+    private PreparedInvocation preparedInvocation;
+
+    @Before
+    public void initialise() throws Exception {
+        this.context = MuleContexts.defaultMuleContext();
+        final Processor processor = new Processor("echo", null, InvokerPoolTest.EchoMessageProcessor.class.getName(), Collections.singletonList(new Parameter(PreparedInvocationTest.VALUE_PARAMETER_NAME, Object.class, false, null)), Object.class.getName(), false);
+        final Module module = new Module("module", "3.2", Object.class.getName(), Collections.<Parameter>emptyList(), Collections.singletonList(processor), Collections.<Source>emptyList(), Collections.<Transformer>emptyList(), null);
+        //Lazy so that the module itself is never initialised: only the InvokerPool below is used.
+        this.dynamicModule = new DynamicModule(getClass().getClassLoader(), module, Collections.<String, Object>emptyMap(), Collections.<String, Object>emptyMap(), 1, PoolConfiguration.DEFAULT, this.context, true);
+        this.invokerPool = new InvokerPool(this.context, InvokerPoolTest.EchoMessageProcessor.class, 1, new PoolConfiguration(0, 1, PoolConfiguration.NO_TIMEOUT, 50));
+        this.preparedInvocation = new PreparedInvocation(this.dynamicModule, processor, this.invokerPool);
+    }
+
+    @After
+    public void dispose() {
+        this.invokerPool.dispose();
+        this.dynamicModule.dispose();
+        this.context.dispose();
+    }
+
+    private static List<Map<String, Object>> createAllParameters() {
+        final List<Map<String, Object>> allParameters = new ArrayList<Map<String, Object>>(PreparedInvocationTest.INVOCATIONS);
+        for (int i = 0; i < PreparedInvocationTest.INVOCATIONS; i++) {
+            allParameters.add(Collections.<String, Object>singletonMap(PreparedInvocationTest.VALUE_PARAMETER_NAME, i));
+        }
+        return allParameters;
+    }
+
+    private static void assertAllSucceeded(final List<InvocationResult<Object>> results) {
+        Assert.assertEquals(PreparedInvocationTest.INVOCATIONS, results.size());
+        for (int i = 0; i < PreparedInvocationTest.INVOCATIONS; i++) {
+            Assert.assertTrue(results.get(i).isSuccess());
+            Assert.assertEquals(i, results.get(i).getValue());
+        }
+    }
+
+    @Test
+    public void rejectedHelpersAreReplacedByCallingThread() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        assertAllSucceeded(this.preparedInvocation.<Object>invokeAll(PreparedInvocationTest.createAllParameters(), 4, executor));
+    }
+
+    @Test
+    public void invokeAllFromSaturatedExecutorCompletes() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<InvocationResult<Object>>> future = executor.submit(new Callable<List<InvocationResult<Object>>>() {
+                @Override
+                public List<InvocationResult<Object>> call() {
+                    return PreparedInvocationTest.this.preparedInvocation.invokeAll(PreparedInvocationTest.createAllParameters(), 4, executor);
+                }
+            });
+
+            assertAllSucceeded(future.get(PreparedInvocationTest.TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void invokeAllCompletesWhenCallingThreadCannotBorrow() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final ExecutorService caller = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        //Only Invoker is held and only executor thread is busy: neither calling thread nor helper can make progress.
+        final Invoker invoker = this.invokerPool.borrow();
+        try {
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws InterruptedException {
+                    release.await();
+                    return null;
+                }
+            });
+            final Future<List<InvocationResult<Object>>> future = caller.submit(new Callable<List<InvocationResult<Object>>>() {
+                @Override
+                public List<InvocationResult<Object>> call() {
+                    return PreparedInvocationTest.this.preparedInvocation.invokeAll(PreparedInvocationTest.createAllParameters(), 2, executor);
+                }
+            });
+
+            final List<InvocationResult<Object>> results = future.get(PreparedInvocationTest.TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Assert.assertEquals(PreparedInvocationTest.INVOCATIONS, results.size());
+            for (final InvocationResult<Object> result : results) {
+                Assert.assertFalse(result.isSuccess());
+                Assert.assertTrue(result.getFailure() instanceof IllegalStateException);
+            }
+        } finally {
+            release.countDown();
+            this.invokerPool.release(invoker);
+            executor.shutdownNow();
+            caller.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.invocation.statistics;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void smallValuesHaveTheirOwnBucket() {
+        for (int value = 0; value < Histogram.SUB_BUCKET_COUNT; value++) {
+            Assert.assertEquals(value, Histogram.bucketIndex(value));
+            Assert.assertEquals(value, Histogram.highestValue(value));
+        }
+    }
+
+    @Test
+    public void bucketBoundaries() {
+        //[16, 31] has unit width, [32, 63] width 2, [64, 127] width 4.
+        Assert.assertEquals(16, Histogram.bucketIndex(16));
+        Assert.assertEquals(31, Histogram.bucketIndex(31));
+        Assert.assertEquals(32, Histogram.bucketIndex(32));
+        Assert.assertEquals(32, Histogram.bucketIndex(33));
+        Assert.assertEquals(33, Histogram.bucketIndex(34));
+        Assert.assertEquals(33, Histogram.highestValue(32));
+        Assert.assertEquals(48, Histogram.bucketIndex(64));
+        Assert.assertEquals(48, Histogram.bucketIndex(67));
+        Assert.assertEquals(49, Histogram.bucketIndex(68));
+        Assert.assertEquals(67, Histogram.highestValue(48));
+
+        final int lastIndex = Histogram.bucketIndex(Long.MAX_VALUE);
+        for (int i = 0; i < lastIndex; i++) {
+            Assert.assertEquals(i, Histogram.bucketIndex(Histogram.highestValue(i)));
+            Assert.assertEquals(i + 1, Histogram.bucketIndex(Histogram.highestValue(i) + 1));
+        }
+        Assert.assertEquals(Long.MAX_VALUE, Histogram.highestValue(lastIndex));
+    }
+
+    @Test
+    public void relativeErrorIsBounded() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            final long value = (random.nextLong() >>> 1) >>> random.nextInt(Long.SIZE - 1);
+            final long highestValue = Histogram.highestValue(Histogram.bucketIndex(value));
+            Assert.assertTrue(highestValue >= value);
+            Assert.assertTrue(highestValue - value <= value / Histogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        final Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(50, histogram.getMean());
+        Assert.assertEquals(100, histogram.getMax());
+        Assert.assertEquals(1, histogram.getPercentile(0));
+        Assert.assertEquals(1, histogram.getPercentile(1));
+        Assert.assertEquals(10, histogram.getPercentile(10));
+        //50 falls in [50, 51], 90 in [88, 91] and 99 in [96, 99]
+        Assert.assertEquals(51, histogram.getPercentile(50));
+        Assert.assertEquals(91, histogram.getPercentile(90));
+        Assert.assertEquals(99, histogram.getPercentile(99));
+        //Capped by max
+        Assert.assertEquals(100, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void percentilesOfLargeValues() {
+        final Histogram histogram = new Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+
+        //1000 falls in [992, 1023], 1000000 in [983040, 1015807]
+        Assert.assertEquals(1023, histogram.getPercentile(50));
+        Assert.assertEquals(1023, histogram.getPercentile(99));
+        Assert.assertEquals(1000000, histogram.getPercentile(99.5));
+        Assert.assertEquals(1000000, histogram.getMax());
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        final Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void emptyAndReset() {
+        final Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getMean());
+        Assert.assertEquals(0, histogram.getPercentile(99));
+
+        histogram.record(42);
+        histogram.reset();
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void invalidPercentile() {
+        new Histogram().getPercentile(101);
+    }
+
+}
@@ -18,53 +18,120 @@
 
 package org.mule.tools.module.helper;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper methods for {@link Class}.
+ * <br />
+ * Hierarchy, annotations and fields lookups are memoized. Caches have weak keys so that {@link ClassLoader}s can be unloaded and soft values as values reference their key {@link Class}.
  */
 public final class Classes {
 
+    private static final LoadingCache<Class<?>, List<Class<?>>> SUPER_CLASSES_CACHE = CacheBuilder.newBuilder().weakKeys().softValues().build(new CacheLoader<Class<?>, List<Class<?>>>() {
+        @Override
+        public List<Class<?>> load(final Class<?> clazz) {
+            final ImmutableList.Builder<Class<?>> allSuperClasses = ImmutableList.builder();
+            Class<?> superClass = clazz.getSuperclass();
+            while (superClass != null) {
+                allSuperClasses.add(superClass);
+                superClass = superClass.getSuperclass();
+            }
+            return allSuperClasses.build();
+        }
+    });
+    private static final LoadingCache<Class<?>, List<Annotation>> ANNOTATIONS_CACHE = CacheBuilder.newBuilder().weakKeys().softValues().build(new CacheLoader<Class<?>, List<Annotation>>() {
+        @Override
+        public List<Annotation> load(final Class<?> clazz) {
+            final ImmutableList.Builder<Annotation> allAnnotations = ImmutableList.builder();
+            allAnnotations.addAll(Arrays.asList(clazz.getAnnotations()));
+            for (final Class<?> superClass : allSuperClasses(clazz)) {
+                allAnnotations.addAll(Arrays.asList(superClass.getAnnotations()));
+            }
+            return allAnnotations.build();
+        }
+    });
+    private static final LoadingCache<Class<?>, List<Field>> DECLARED_FIELDS_CACHE = CacheBuilder.newBuilder().weakKeys().softValues().build(new CacheLoader<Class<?>, List<Field>>() {
+        @Override
+        public List<Field> load(final Class<?> clazz) {
+            final ImmutableList.Builder<Field> allDeclaredFields = ImmutableList.builder();
+            for (final Class<?> superClazz : allSuperClasses(clazz)) {
+                allDeclaredFields.addAll(Arrays.asList(superClazz.getDeclaredFields()));
+            }
+            return allDeclaredFields.build();
+        }
+    });
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>();
+    static {
+        for (final Class<?> primitiveType : new Class<?>[] {boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class}) {
+            Classes.PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+        }
+    }
+
     private Classes() {
     }
 
+    /**
+     * Unlike {@link #loadClass(java.lang.ClassLoader, java.lang.String)} supports primitive and array types and does not initialise loaded {@link Class}.
+     * @param classLoader
+     * @param name as returned by {@link Class#getName()}
+     * @return {@link Class} named `name`
+     * @throws IllegalArgumentException if `name` cannot be loaded
+     */
+    public static Class<?> forName(final ClassLoader classLoader, final String name) {
+        final Class<?> primitiveType = Classes.PRIMITIVE_TYPES.get(name);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Failed to load <"+name+">", e);
+        }
+    }
+
     /**
      * @param clazz
-     * @return all subclasses of specified {@link Class}
+     * @return all subclasses of specified {@link Class}, immutable
      */
     public static List<Class<?>> allSuperClasses(final Class<?> clazz) {
-        final List<Class<?>> allSuperClasses = new LinkedList<Class<?>>();
-        Class<?> superClass = clazz.getSuperclass();
-        while (superClass != null) {
-            allSuperClasses.add(superClass);
-            superClass = superClass.getSuperclass();
-        }
-        return allSuperClasses;
+        return Classes.SUPER_CLASSES_CACHE.getUnchecked(clazz);
+    }
+
+    /**
+     * @param clazz
+     * @return number of super {@link Class}es of specified {@link Class}
+     */
+    public static int hierarchyDepth(final Class<?> clazz) {
+        return allSuperClasses(clazz).size();
     }
 
+    /**
+     * @param clazz
+     * @return all annotations of specified {@link Class} then of all super {@link Class}es, immutable
+     */
     public static List<Annotation> allAnnotations(final Class<?> clazz) {
-        final List<Annotation> allAnnotations = new LinkedList<Annotation>(Arrays.asList(clazz.getAnnotations()));
-        for (final Class<?> superClass : allSuperClasses(clazz)) {
-            allAnnotations.addAll(Arrays.asList(superClass.getAnnotations()));
-        }
-        return allAnnotations;
+        return Classes.ANNOTATIONS_CACHE.getUnchecked(clazz);
     }
 
     /**
      * @param clazz
-     * @return all declared {@link Field} of specified {@link Class} and all super {@link Class}es
+     * @return all declared {@link Field} of specified {@link Class} and all super {@link Class}es, immutable
      */
     public static List<Field> allDeclaredFields(final Class<?> clazz) {
-        final List<Field> allDeclaredFields = new LinkedList<Field>();
-        for (final Class<?> superClazz : allSuperClasses(clazz)) {
-            allDeclaredFields.addAll(Arrays.asList(superClazz.getDeclaredFields()));
-        }
-        return allDeclaredFields;
+        return Classes.DECLARED_FIELDS_CACHE.getUnchecked(clazz);
     }
 
     /**
@@ -0,0 +1,145 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.helper;
+
+import com.google.common.base.Preconditions;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helper methods for {@link File}s: SHA-1 digests and atomic replacement.
+ */
+public final class Files {
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private Files() {
+    }
+
+    public static String toHex(final byte[] bytes) {
+        Preconditions.checkNotNull(bytes, "null bytes");
+
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(Files.DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param string
+     * @return hex SHA-1 of `string` UTF-8 bytes
+     */
+    public static String digest(final String string) {
+        Preconditions.checkNotNull(string, "null string");
+
+        try {
+            return Files.toHex(Files.newDigest().digest(string.getBytes("UTF-8")));
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param file
+     * @return hex SHA-1 of `file` content
+     * @throws IOException
+     */
+    public static String digest(final File file) throws IOException {
+        Preconditions.checkNotNull(file, "null file");
+
+        final MessageDigest digest = Files.newDigest();
+        final InputStream inputStream = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = inputStream.read(buffer)) > -1) {
+                digest.update(buffer, 0, n);
+            }
+        } finally {
+            inputStream.close();
+        }
+        return Files.toHex(digest.digest());
+    }
+
+    /**
+     * @param directory
+     * @throws IOException if `directory` does not exist and cannot be created
+     */
+    public static void createDirectory(final File directory) throws IOException {
+        Preconditions.checkNotNull(directory, "null directory");
+
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Failed to create <"+directory+">");
+        }
+    }
+
+    /**
+     * Temporary files are meant to be written then moved to `file` using {@link #replace(java.io.File, java.io.File)} so that concurrent readers never see a partial file.
+     * Callers delete it once done, in case replacement did not happen.
+     * @param file
+     * @return a new temporary file in `file` directory, hence on the same file system
+     * @throws IOException
+     */
+    public static File createTemporaryFile(final File file) throws IOException {
+        Preconditions.checkNotNull(file, "null file");
+
+        final File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectory(directory);
+        //Prefix must be at least 3 characters long.
+        return File.createTempFile("."+file.getName()+"-", Files.TEMPORARY_FILE_SUFFIX, directory);
+    }
+
+    /**
+     * Replace `file` with `temporaryFile`.
+     * <br />
+     * Existing readers of `file`, e.g. through a memory mapping, keep on seeing its previous content.
+     * @param temporaryFile
+     * @param file
+     * @throws IOException
+     */
+    public static void replace(final File temporaryFile, final File file) throws IOException {
+        Preconditions.checkNotNull(temporaryFile, "null temporaryFile");
+        Preconditions.checkNotNull(file, "null file");
+
+        if (!temporaryFile.renameTo(file)) {
+            //Windows does not replace existing files.
+            file.delete();
+            if (!temporaryFile.renameTo(file)) {
+                throw new IOException("Failed to rename <"+temporaryFile+"> to <"+file+">");
+            }
+        }
+    }
+
+}
@@ -18,17 +18,230 @@
 
 package org.mule.tools.module.helper;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Helper methods for reflection.
  */
 public final class Reflections {
 
+    /**
+     * Sets a property value on an object. Resolved once per {@link Class} and property.
+     */
+    private interface Setter {
+
+        void set(Object object, Object value) throws Exception;
+
+    }
+
+    /**
+     * Gets a property value from an object. Resolved once per {@link Class} and property.
+     */
+    private interface Getter {
+
+        Object get(Object object) throws Exception;
+
+    }
+
+    private interface Accessor extends Setter, Getter {
+    }
+
+    private static final class MethodAccessor implements Accessor {
+
+        private final Method method;
+
+        private MethodAccessor(final Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public void set(final Object object, final Object value) throws IllegalAccessException, InvocationTargetException {
+            this.method.invoke(object, value);
+        }
+
+        @Override
+        public Object get(final Object object) throws IllegalAccessException, InvocationTargetException {
+            return this.method.invoke(object);
+        }
+
+    }
+
+    private static final class FieldAccessor implements Accessor {
+
+        private final Field field;
+
+        private FieldAccessor(final Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public void set(final Object object, final Object value) throws IllegalAccessException {
+            this.field.set(object, value);
+        }
+
+        @Override
+        public Object get(final Object object) throws IllegalAccessException {
+            return this.field.get(object);
+        }
+
+    }
+
+    /**
+     * Remembers that resolution failed so that it is not attempted again.
+     */
+    private static final class MissingAccessor implements Accessor {
+
+        private final String message;
+        private final Throwable cause;
+
+        private MissingAccessor(final String message, final Throwable cause) {
+            this.message = message;
+            this.cause = cause;
+        }
+
+        @Override
+        public void set(final Object object, final Object value) {
+            throw new RuntimeException(this.message, this.cause);
+        }
+
+        @Override
+        public Object get(final Object object) {
+            throw new RuntimeException(this.message, this.cause);
+        }
+
+    }
+
+    /**
+     * All resolved accessors of a {@link Class}.
+     */
+    private static final class Accessors {
+
+        private final Class<?> type;
+        private final ConcurrentMap<String, Getter> getters = new ConcurrentHashMap<String, Getter>();
+        private final ConcurrentMap<String, ConcurrentMap<Class<?>, Setter>> setters = new ConcurrentHashMap<String, ConcurrentMap<Class<?>, Setter>>();
+        private final ConcurrentMap<String, Setter> parameterSetters = new ConcurrentHashMap<String, Setter>();
+
+        private Accessors(final Class<?> type) {
+            this.type = type;
+        }
+
+        private Getter getter(final String propertyName) {
+            final Getter getter = this.getters.get(propertyName);
+            if (getter != null) {
+                return getter;
+            }
+
+            final Method method = Reflections.findMethod(this.type, Reflections.getterMethodName(propertyName));
+            final Getter resolved = method != null ? new MethodAccessor(method) : fieldAccessor(propertyName);
+            final Getter previous = this.getters.putIfAbsent(propertyName, resolved);
+            return previous != null ? previous : resolved;
+        }
+
+        /**
+         * @param propertyName
+         * @param argumentType type of value to be set, {@link Void} for null values
+         */
+        private Setter setter(final String propertyName, final Class<?> argumentType) {
+            ConcurrentMap<Class<?>, Setter> propertySetters = this.setters.get(propertyName);
+            if (propertySetters == null) {
+                final ConcurrentMap<Class<?>, Setter> newPropertySetters = new ConcurrentHashMap<Class<?>, Setter>();
+                final ConcurrentMap<Class<?>, Setter> previous = this.setters.putIfAbsent(propertyName, newPropertySetters);
+                propertySetters = previous != null ? previous : newPropertySetters;
+            }
+            final Setter setter = propertySetters.get(argumentType);
+            if (setter != null) {
+                return setter;
+            }
+
+            final Setter resolved = resolveSetter(propertyName, argumentType);
+            final Setter previous = propertySetters.putIfAbsent(argumentType, resolved);
+            return previous != null ? previous : resolved;
+        }
+
+        /**
+         * Setter method accepting `argumentType` (or its primitive counterpart) if any, declared field otherwise.
+         */
+        private Setter resolveSetter(final String propertyName, final Class<?> argumentType) {
+            if (argumentType != Void.class) {
+                final String setterMethodName = Reflections.setterMethodName(propertyName);
+                Method method = Reflections.findMethod(this.type, setterMethodName, argumentType);
+                if (method == null && Reflections.isWrapper(argumentType)) {
+                    method = Reflections.findMethod(this.type, setterMethodName, Reflections.toPrimitive(argumentType));
+                }
+                if (method != null) {
+                    return new MethodAccessor(method);
+                }
+            }
+            return fieldAccessor(propertyName);
+        }
+
+        /**
+         * @return setter method accepting an {@link Object}, as generated for parameters
+         */
+        private Setter parameterSetter(final String parameterName) {
+            final Setter setter = this.parameterSetters.get(parameterName);
+            if (setter != null) {
+                return setter;
+            }
+
+            final Method method = Reflections.findMethod(this.type, Reflections.setterMethodName(parameterName), Object.class);
+            final Setter resolved = method != null ? new MethodAccessor(method) : new MissingAccessor("Failed to find <"+Reflections.setterMethodName(parameterName)+"(Object)> on <"+this.type+">", null);
+            final Setter previous = this.parameterSetters.putIfAbsent(parameterName, resolved);
+            return previous != null ? previous : resolved;
+        }
+
+        private Accessor fieldAccessor(final String propertyName) {
+            try {
+                return new FieldAccessor(Reflections.setAccessible(this.type, propertyName));
+            } catch (RuntimeException e) {
+                return new MissingAccessor(e.getMessage(), e.getCause());
+            }
+        }
+
+    }
+
+    /**
+     * Accessors cache. {@link Class}es are weakly referenced and accessors softly referenced so that their {@link ClassLoader} can be unloaded.
+     */
+    private static final LoadingCache<Class<?>, Accessors> ACCESSORS = CacheBuilder.newBuilder().weakKeys().softValues().build(new CacheLoader<Class<?>, Accessors>() {
+        @Override
+        public Accessors load(final Class<?> type) {
+            return new Accessors(type);
+        }
+    });
+
     private Reflections() {
     }
 
+    private static Accessors accessors(final Class<?> type) {
+        return Reflections.ACCESSORS.getUnchecked(type);
+    }
+
+    /**
+     * @return public {@link Method} with specified name and argument types, null if none exists
+     */
+    private static Method findMethod(final Class<?> type, final String name, final Class<?>... argumentTypes) {
+        try {
+            return type.getMethod(name, argumentTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isWrapper(final Class<?> type) {
+        return type == Integer.class || type == Float.class || type == Long.class || type == Double.class
+            || type == Character.class || type == Byte.class || type == Short.class || type == Boolean.class;
+    }
+
     public static Field setAccessible(final Class<?> type, final String propertyName) {
         try {
             final Field field = type.getDeclaredField(propertyName);
@@ -49,19 +262,15 @@ public final class Reflections {
 
     /**
      * Get value of property for specified object.
+     * Relies on getter if any, on declared field otherwise.
      * @param object
      * @param propertyName
      */
     public static <T> T get(final Object object, final String propertyName) {
         try {
-            return Reflections.invoke(object, Reflections.getterMethodName(propertyName), void.class);
-        } catch (RuntimeException e) {
-            final Field field = Reflections.setAccessible(object.getClass(), propertyName);
-            try {
-                return (T) field.get(object);
-            } catch(IllegalAccessException ee) {
-                throw new RuntimeException(ee);
-            }
+            return (T) Reflections.accessors(object.getClass()).getter(propertyName).get(object);
+        } catch (Exception e) {
+            throw Reflections.accessFailure("get <"+propertyName+">", object, e);
         }
     }
 
@@ -89,39 +298,47 @@ public final class Reflections {
 
     /**
      * Sets property to value for specified object.
+     * Relies on setter accepting value type (or its primitive counterpart) if any, on declared field otherwise.
      * @param object
      * @param propertyName
      * @param value 
      */
     public static void set(final Object object, final String propertyName, final Object value) {
+        final Class<?> argumentType = value != null ? value.getClass() : Void.class;
         try {
-            Reflections.invoke(object, Reflections.setterMethodName(propertyName), value);
-        } catch (RuntimeException e) {
-            final Field field = Reflections.setAccessible(object.getClass(), propertyName);
-            try {
-                field.set(object, value);
-            } catch(IllegalAccessException ee) {
-                throw new RuntimeException(ee);
-            }
+            Reflections.accessors(object.getClass()).setter(propertyName, argumentType).set(object, value);
+        } catch (Exception e) {
+            throw Reflections.accessFailure("set <"+propertyName+"> to <"+value+">", object, e);
         }
     }
 
     /**
-     * Sets parameters for specified object.
+     * Sets parameters for specified object using setters accepting an {@link Object}.
      * @param object
      * @param parameters
      */
     public static void set(final Object object, final Map<String, Object> parameters) {
+        final Accessors accessors = Reflections.accessors(object.getClass());
         for (final Map.Entry<String, Object> entry : parameters.entrySet()) {
             final String parameterName = entry.getKey();
             try {
-                Reflections.invoke(object, Reflections.setterMethodName(parameterName), entry.getValue(), Object.class);
+                accessors.parameterSetter(parameterName).set(object, entry.getValue());
             } catch (Exception e) {
                 throw new RuntimeException("Failed to set parameter <"+parameterName+"> on <"+object+">", e);
             }
         }
     }
 
+    private static RuntimeException accessFailure(final String description, final Object object, final Exception e) {
+        if (e instanceof InvocationTargetException) {
+            return new RuntimeException("Failed to "+description+" on <"+object+">", e.getCause());
+        }
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new RuntimeException("Failed to "+description+" on <"+object+">", e);
+    }
+
     /**
      * @param type
      * @return primitive equivalent type for specified {@link Class}
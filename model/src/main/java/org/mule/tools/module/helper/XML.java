@@ -20,6 +20,7 @@ package org.mule.tools.module.helper;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.LinkedList;
 import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
@@ -40,6 +41,17 @@ public class XML {
         return builder.parse(file);
     }
 
+    /**
+     * @param inputStream not closed
+     * @param systemId used as {@link Document} base URI
+     */
+    public static Document load(final InputStream inputStream, final String systemId) throws SAXException, ParserConfigurationException, IOException {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        //factory.setNamespaceAware(true);
+        final DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.parse(inputStream, systemId);
+    }
+
     public static List<String> extract(final Document document, final String expression) throws XPathExpressionException {
         final XPathFactory factory = XPathFactory.newInstance();
         final XPath xpath = factory.newXPath();
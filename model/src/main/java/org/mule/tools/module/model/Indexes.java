@@ -0,0 +1,72 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model;
+
+import com.google.common.base.Function;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helper methods building name based indexes of model elements.
+ */
+final class Indexes {
+
+    static final Function<Parameter, String> PARAMETER_NAME = new Function<Parameter, String>() {
+        @Override
+        public String apply(final Parameter parameter) {
+            return parameter.getName();
+        }
+    };
+    static final Function<Processor, String> PROCESSOR_NAME = new Function<Processor, String>() {
+        @Override
+        public String apply(final Processor processor) {
+            return processor.getName();
+        }
+    };
+    static final Function<Source, String> SOURCE_NAME = new Function<Source, String>() {
+        @Override
+        public String apply(final Source source) {
+            return source.getName();
+        }
+    };
+
+    private Indexes() {
+    }
+
+    /**
+     * @param <T>
+     * @param elements
+     * @param naming
+     * @return an immutable {@link Map} of `elements` by name, preserving order. First element wins when names are duplicated.
+     */
+    static <T> Map<String, T> byName(final List<T> elements, final Function<T, String> naming) {
+        final Map<String, T> index = new LinkedHashMap<String, T>();
+        for (final T element : elements) {
+            final String name = naming.apply(element);
+            if (!index.containsKey(name)) {
+                index.put(name, element);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+}
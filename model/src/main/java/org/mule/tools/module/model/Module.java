@@ -23,6 +23,8 @@ import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
 
 public class Module {
 
@@ -30,8 +32,11 @@ public class Module {
     private final String minMuleVersion;
     private final String type;
     private final List<Parameter> parameters;
+    private final Map<String, Parameter> parametersByName;
     private final List<Processor> processors;
+    private final Map<String, Processor> processorsByName;
     private final List<Source> sources;
+    private final Map<String, Source> sourcesByName;
     private final List<Transformer> transformers;
     private final String connectionManagerType;
 
@@ -50,6 +55,9 @@ public class Module {
         this.parameters = Collections.unmodifiableList(new ArrayList<Parameter>(parameters));
         this.processors = Collections.unmodifiableList(new ArrayList<Processor>(processors));
         this.sources = Collections.unmodifiableList(new ArrayList<Source>(sources));
+        this.parametersByName = Indexes.byName(this.parameters, Indexes.PARAMETER_NAME);
+        this.processorsByName = Indexes.byName(this.processors, Indexes.PROCESSOR_NAME);
+        this.sourcesByName = Indexes.byName(this.sources, Indexes.SOURCE_NAME);
         this.transformers = Collections.unmodifiableList(new ArrayList<Transformer>(transformers));
         this.connectionManagerType = connectionManagerTypeName;
     }
@@ -70,14 +78,54 @@ public class Module {
         return this.parameters;
     }
 
+    /**
+     * @return {@link Parameter}s indexed by name
+     */
+    public final Map<String, Parameter> getParametersByName() {
+        return this.parametersByName;
+    }
+
+    /**
+     * @param name
+     * @return {@link Parameter} with specified name, null if none can be found
+     */
+    @Nullable
+    public final Parameter getParameter(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        return this.parametersByName.get(name);
+    }
+
     public final List<Processor> getProcessors() {
         return this.processors;
     }
 
+    /**
+     * @param name
+     * @return {@link Processor} with specified name, null if none can be found
+     */
+    @Nullable
+    public final Processor getProcessor(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        return this.processorsByName.get(name);
+    }
+
     public final List<Source> getSources() {
         return this.sources;
     }
 
+    /**
+     * @param name
+     * @return {@link Source} with specified name, null if none can be found
+     */
+    @Nullable
+    public final Source getSource(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        return this.sourcesByName.get(name);
+    }
+
     public final List<Transformer> getTransformers() {
         return this.transformers;
     }
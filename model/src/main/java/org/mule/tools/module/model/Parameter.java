@@ -21,6 +21,8 @@ package org.mule.tools.module.model;
 import com.google.common.base.Preconditions;
 import javax.annotation.Nullable;
 
+import org.mule.tools.module.helper.Classes;
+
 /**
  * Model for {@link Processor} and {@link Module} parameter.
  *
@@ -30,7 +32,10 @@ import javax.annotation.Nullable;
 public class Parameter {
 
     private final String name;
-    private final Class<?> type;
+    private final String typeName;
+    //Lazily resolved from typeName using classLoader.
+    private volatile Class<?> type;
+    private final ClassLoader classLoader;
     private final boolean optional;
     private final String defaultValue;
 
@@ -39,7 +44,28 @@ public class Parameter {
         Preconditions.checkNotNull(type, "null type");
 
         this.name = name;
+        this.typeName = type.getName();
         this.type = type;
+        this.classLoader = null;
+        this.optional = optional;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * @param name
+     * @param typeName as returned by {@link Class#getName()}; loaded from `classLoader` on first call to {@link #getType()}
+     * @param classLoader
+     * @param optional
+     * @param defaultValue
+     */
+    public Parameter(final String name, final String typeName, final ClassLoader classLoader, final boolean optional, @Nullable final String defaultValue) {
+        Preconditions.checkNotNull(name, "null name");
+        Preconditions.checkNotNull(typeName, "null typeName");
+        Preconditions.checkNotNull(classLoader, "null classLoader");
+
+        this.name = name;
+        this.typeName = typeName;
+        this.classLoader = classLoader;
         this.optional = optional;
         this.defaultValue = defaultValue;
     }
@@ -48,8 +74,25 @@ public class Parameter {
         return this.name;
     }
 
+    /**
+     * @return type, loaded on first call if this {@link Parameter} was created from a type name
+     * @throws IllegalArgumentException if type cannot be loaded
+     */
     public final Class<?> getType() {
-        return this.type;
+        Class<?> currentType = this.type;
+        if (currentType == null) {
+            //Racy but idempotent.
+            currentType = Classes.forName(this.classLoader, this.typeName);
+            this.type = currentType;
+        }
+        return currentType;
+    }
+
+    /**
+     * @return name of type, available without loading it
+     */
+    public final String getTypeName() {
+        return this.typeName;
     }
 
     public final boolean isOptional() {
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
@@ -37,6 +38,7 @@ public class Processor {
     private final String friendlyName;
     private final String type;
     private final List<Parameter> parameters;
+    private final Map<String, Parameter> parametersByName;
     private final String returnType;
     private final boolean intercepting;
 
@@ -50,6 +52,7 @@ public class Processor {
         this.friendlyName = friendlyName;
         this.type = type;
         this.parameters = Collections.unmodifiableList(new ArrayList<Parameter>(parameters));
+        this.parametersByName = Indexes.byName(this.parameters, Indexes.PARAMETER_NAME);
         this.returnType = returnType;
         this.intercepting = intercepting;
     }
@@ -71,6 +74,24 @@ public class Processor {
         return this.parameters;
     }
 
+    /**
+     * @return {@link Parameter}s indexed by name
+     */
+    public final Map<String, Parameter> getParametersByName() {
+        return this.parametersByName;
+    }
+
+    /**
+     * @param name
+     * @return {@link Parameter} with specified name, null if none can be found
+     */
+    @Nullable
+    public final Parameter getParameter(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        return this.parametersByName.get(name);
+    }
+
     public final String getReturnType() {
         return this.returnType;
     }
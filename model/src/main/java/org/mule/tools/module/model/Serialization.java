@@ -0,0 +1,293 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model;
+
+import com.google.common.base.Preconditions;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for {@link Package}s.
+ * <br />
+ * Strings are written once then referenced by index, sizes are variable length encoded.
+ * Types are stored by name: {@link Parameter#getType()} and {@link Transformer#getSourceTypes()} of read models are loaded lazily from the provided {@link ClassLoader}.
+ */
+public final class Serialization {
+
+    private static final int MAGIC = 0x4D4F444C;
+    private static final int VERSION = 1;
+
+    //String references: null, new string (inlined) or index + REFERENCE_OFFSET of an already written string.
+    private static final int NULL_REFERENCE = 0;
+    private static final int NEW_REFERENCE = 1;
+    private static final int REFERENCE_OFFSET = 2;
+
+    /**
+     * Keeps track of already written strings.
+     */
+    private static final class Writer {
+
+        private final DataOutput output;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        private Writer(final DataOutput output) {
+            this.output = output;
+        }
+
+        private void writeSize(final int size) throws IOException {
+            int value = size;
+            while ((value & ~0x7F) != 0) {
+                this.output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.output.writeByte(value);
+        }
+
+        private void writeString(final String string) throws IOException {
+            if (string == null) {
+                writeSize(Serialization.NULL_REFERENCE);
+                return;
+            }
+
+            final Integer index = this.strings.get(string);
+            if (index != null) {
+                writeSize(index + Serialization.REFERENCE_OFFSET);
+                return;
+            }
+            this.strings.put(string, this.strings.size());
+            writeSize(Serialization.NEW_REFERENCE);
+            this.output.writeUTF(string);
+        }
+
+        private void writeParameters(final List<Parameter> parameters) throws IOException {
+            writeSize(parameters.size());
+            for (final Parameter parameter : parameters) {
+                writeString(parameter.getName());
+                writeString(parameter.getTypeName());
+                this.output.writeBoolean(parameter.isOptional());
+                writeString(parameter.getDefaultValue());
+            }
+        }
+
+        private void writeModule(final Module module) throws IOException {
+            writeString(module.getName());
+            writeString(module.getMinMuleVersion());
+            writeString(module.getType());
+            writeString(module.getConnectionManagerType());
+            writeParameters(module.getParameters());
+            writeSize(module.getProcessors().size());
+            for (final Processor processor : module.getProcessors()) {
+                writeString(processor.getName());
+                writeString(processor.getFriendlyName());
+                writeString(processor.getType());
+                writeParameters(processor.getParameters());
+                writeString(processor.getReturnType());
+                this.output.writeBoolean(processor.isIntercepting());
+            }
+            writeSize(module.getSources().size());
+            for (final Source source : module.getSources()) {
+                writeString(source.getName());
+                writeString(source.getFriendlyName());
+                writeString(source.getType());
+                writeParameters(source.getParameters());
+            }
+            writeSize(module.getTransformers().size());
+            for (final Transformer transformer : module.getTransformers()) {
+                writeString(transformer.getType());
+                this.output.writeInt(transformer.getPriorityWeighting());
+                final String[] sourceTypeNames = transformer.getSourceTypeNames();
+                writeSize(sourceTypeNames.length);
+                for (final String sourceTypeName : sourceTypeNames) {
+                    writeString(sourceTypeName);
+                }
+            }
+        }
+
+        private void writeMetadata(final Metadata metadata) throws IOException {
+            writeString(metadata.getHomepage().toExternalForm());
+            writeSize(metadata.getIcons().size());
+            for (final Map.Entry<Metadata.Icon, URL> entry : metadata.getIcons().entrySet()) {
+                writeSize(entry.getKey().ordinal());
+                writeString(entry.getValue().toExternalForm());
+            }
+        }
+
+    }
+
+    /**
+     * Mirror of {@link Writer}.
+     */
+    private static final class Reader {
+
+        private final DataInput input;
+        private final ClassLoader classLoader;
+        private final List<String> strings = new ArrayList<String>();
+
+        private Reader(final DataInput input, final ClassLoader classLoader) {
+            this.input = input;
+            this.classLoader = classLoader;
+        }
+
+        private int readSize() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final int b = this.input.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed size");
+        }
+
+        private String readString() throws IOException {
+            final int reference = readSize();
+            if (reference == Serialization.NULL_REFERENCE) {
+                return null;
+            }
+            if (reference == Serialization.NEW_REFERENCE) {
+                final String string = this.input.readUTF();
+                this.strings.add(string);
+                return string;
+            }
+            final int index = reference - Serialization.REFERENCE_OFFSET;
+            if (index >= this.strings.size()) {
+                throw new IOException("Invalid string reference <"+index+">");
+            }
+            return this.strings.get(index);
+        }
+
+        private List<Parameter> readParameters() throws IOException {
+            final int size = readSize();
+            final List<Parameter> parameters = new ArrayList<Parameter>(size);
+            for (int i = 0; i < size; i++) {
+                final String name = readString();
+                final String typeName = readString();
+                final boolean optional = this.input.readBoolean();
+                parameters.add(new Parameter(name, typeName, this.classLoader, optional, readString()));
+            }
+            return parameters;
+        }
+
+        private Module readModule() throws IOException {
+            final String name = readString();
+            final String minMuleVersion = readString();
+            final String type = readString();
+            final String connectionManagerType = readString();
+            final List<Parameter> parameters = readParameters();
+            final int processorsSize = readSize();
+            final List<Processor> processors = new ArrayList<Processor>(processorsSize);
+            for (int i = 0; i < processorsSize; i++) {
+                final String processorName = readString();
+                final String friendlyName = readString();
+                final String processorType = readString();
+                final List<Parameter> processorParameters = readParameters();
+                final String returnType = readString();
+                processors.add(new Processor(processorName, friendlyName, processorType, processorParameters, returnType, this.input.readBoolean()));
+            }
+            final int sourcesSize = readSize();
+            final List<Source> sources = new ArrayList<Source>(sourcesSize);
+            for (int i = 0; i < sourcesSize; i++) {
+                final String sourceName = readString();
+                final String friendlyName = readString();
+                final String sourceType = readString();
+                sources.add(new Source(sourceName, friendlyName, sourceType, readParameters()));
+            }
+            final int transformersSize = readSize();
+            final List<Transformer> transformers = new ArrayList<Transformer>(transformersSize);
+            for (int i = 0; i < transformersSize; i++) {
+                final String transformerType = readString();
+                final int priorityWeighting = this.input.readInt();
+                final String[] sourceTypeNames = new String[readSize()];
+                for (int j = 0; j < sourceTypeNames.length; j++) {
+                    sourceTypeNames[j] = readString();
+                }
+                transformers.add(new Transformer(transformerType, priorityWeighting, sourceTypeNames, this.classLoader));
+            }
+            return new Module(name, minMuleVersion, type, parameters, processors, sources, transformers, connectionManagerType);
+        }
+
+        private Metadata readMetadata() throws IOException {
+            final URL homepage = new URL(readString());
+            final Map<Metadata.Icon, URL> icons = new EnumMap<Metadata.Icon, URL>(Metadata.Icon.class);
+            final int size = readSize();
+            final Metadata.Icon[] allIcons = Metadata.Icon.values();
+            for (int i = 0; i < size; i++) {
+                final int ordinal = readSize();
+                if (ordinal >= allIcons.length) {
+                    throw new IOException("Invalid icon <"+ordinal+">");
+                }
+                icons.put(allIcons[ordinal], new URL(readString()));
+            }
+            return new Metadata(homepage, icons);
+        }
+
+    }
+
+    private Serialization() {
+    }
+
+    /**
+     * @param module
+     * @param output
+     * @throws IOException
+     * @see #read(java.io.DataInput, java.lang.ClassLoader)
+     */
+    public static void write(final Package module, final DataOutput output) throws IOException {
+        Preconditions.checkNotNull(module, "null module");
+        Preconditions.checkNotNull(output, "null output");
+
+        output.writeInt(Serialization.MAGIC);
+        output.writeInt(Serialization.VERSION);
+        final Writer writer = new Writer(output);
+        writer.writeModule(module.getModule());
+        writer.writeMetadata(module.getMetadata());
+    }
+
+    /**
+     * @param input
+     * @param classLoader used to lazily load types
+     * @return {@link Package} previously written with {@link #write(org.mule.tools.module.model.Package, java.io.DataOutput)}
+     * @throws IOException if `input` is not in expected format
+     */
+    public static Package read(final DataInput input, final ClassLoader classLoader) throws IOException {
+        Preconditions.checkNotNull(input, "null input");
+        Preconditions.checkNotNull(classLoader, "null classLoader");
+
+        if (input.readInt() != Serialization.MAGIC) {
+            throw new IOException("Invalid magic number");
+        }
+        final int version = input.readInt();
+        if (version != Serialization.VERSION) {
+            throw new IOException("Unsupported version <"+version+">");
+        }
+        final Reader reader = new Reader(input, classLoader);
+        final Module module = reader.readModule();
+        return new Package(module, reader.readMetadata());
+    }
+
+}
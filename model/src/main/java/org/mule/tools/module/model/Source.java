@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
@@ -37,6 +38,7 @@ public class Source {
     private final String friendlyName;
     private final String type;
     private final List<Parameter> parameters;
+    private final Map<String, Parameter> parametersByName;
 
     public Source(final String name, @Nullable final String friendlyName, final String type, final List<Parameter> parameters) {
         Preconditions.checkNotNull(name, "null name");
@@ -47,6 +49,7 @@ public class Source {
         this.friendlyName = friendlyName;
         this.type = type;
         this.parameters = Collections.unmodifiableList(new ArrayList<Parameter>(parameters));
+        this.parametersByName = Indexes.byName(this.parameters, Indexes.PARAMETER_NAME);
     }
 
     public final String getName() {
@@ -66,6 +69,24 @@ public class Source {
         return this.parameters;
     }
 
+    /**
+     * @return {@link Parameter}s indexed by name
+     */
+    public final Map<String, Parameter> getParametersByName() {
+        return this.parametersByName;
+    }
+
+    /**
+     * @param name
+     * @return {@link Parameter} with specified name, null if none can be found
+     */
+    @Nullable
+    public final Parameter getParameter(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        return this.parametersByName.get(name);
+    }
+
     @Override
     public String toString() {
         return "name: <"+this.name+"> friendlyName: <"+this.friendlyName+"> type: <"+this.type+"> parameters: <"+this.parameters+">";
@@ -23,15 +23,22 @@ import com.google.common.base.Preconditions;
 import java.util.Arrays;
 import javax.annotation.concurrent.Immutable;
 
+import org.mule.tools.module.helper.Classes;
+
 /**
  * Model for {@link org.mule.api.annotations.Transformer}.
+ * <br />
+ * Source types might be lazily loaded from their names. This caching is benign: it is not observable from callers and always yields the same types.
  */
 @Immutable
 public class Transformer {
 
     private final String type;
     private final int priorityWeighting;
-    private final Class<?>[] sourceTypes;
+    private final String[] sourceTypeNames;
+    //Lazily resolved from sourceTypeNames using classLoader. Not part of this Transformer state: see class javadoc.
+    private volatile Class<?>[] sourceTypes;
+    private final ClassLoader classLoader;
 
     public Transformer(final String type, final int priorityWeighting, final Class<?>[] sourceTypes) {
         Preconditions.checkNotNull(type, "null type");
@@ -39,7 +46,29 @@ public class Transformer {
 
         this.type = type;
         this.priorityWeighting = priorityWeighting;
+        this.sourceTypeNames = new String[sourceTypes.length];
+        for (int i = 0; i < sourceTypes.length; i++) {
+            this.sourceTypeNames[i] = sourceTypes[i].getName();
+        }
         this.sourceTypes = sourceTypes;
+        this.classLoader = null;
+    }
+
+    /**
+     * @param type
+     * @param priorityWeighting
+     * @param sourceTypeNames as returned by {@link Class#getName()}; loaded from `classLoader` on first call to {@link #getSourceTypes()}
+     * @param classLoader
+     */
+    public Transformer(final String type, final int priorityWeighting, final String[] sourceTypeNames, final ClassLoader classLoader) {
+        Preconditions.checkNotNull(type, "null type");
+        Preconditions.checkNotNull(sourceTypeNames, "null sourceTypeNames");
+        Preconditions.checkNotNull(classLoader, "null classLoader");
+
+        this.type = type;
+        this.priorityWeighting = priorityWeighting;
+        this.sourceTypeNames = sourceTypeNames.clone();
+        this.classLoader = classLoader;
     }
 
     public final String getType() {
@@ -50,13 +79,33 @@ public class Transformer {
         return this.priorityWeighting;
     }
 
+    /**
+     * @return source types, loaded on first call if this {@link Transformer} was created from type names
+     * @throws IllegalArgumentException if a type cannot be loaded
+     */
     public final Class<?>[] getSourceTypes() {
-        return this.sourceTypes;
+        Class<?>[] currentSourceTypes = this.sourceTypes;
+        if (currentSourceTypes == null) {
+            //Racy but idempotent.
+            currentSourceTypes = new Class<?>[this.sourceTypeNames.length];
+            for (int i = 0; i < this.sourceTypeNames.length; i++) {
+                currentSourceTypes[i] = Classes.forName(this.classLoader, this.sourceTypeNames[i]);
+            }
+            this.sourceTypes = currentSourceTypes;
+        }
+        return currentSourceTypes;
+    }
+
+    /**
+     * @return names of source types, available without loading them
+     */
+    public final String[] getSourceTypeNames() {
+        return this.sourceTypeNames.clone();
     }
 
     @Override
     public String toString() {
-        return "type: <"+this.type+"> priorityWeighting: <"+this.priorityWeighting+"> sourceTypes: <"+Arrays.toString(this.sourceTypes) +">";
+        return "type: <"+this.type+"> priorityWeighting: <"+this.priorityWeighting+"> sourceTypes: <"+Arrays.toString(this.sourceTypeNames) +">";
     }
 
 }
\ No newline at end of file
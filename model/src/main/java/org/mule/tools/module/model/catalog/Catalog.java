@@ -0,0 +1,214 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.model.Module;
+
+/**
+ * Read-only catalog of {@link Module}s stored in a memory-mapped file.
+ * <br />
+ * Opening a catalog only maps its file: {@link ModuleView}s read directly from the mapping and strings are decoded on first access.
+ * Heap usage is thus proportional to what is actually browsed rather than to the catalog size.
+ * <br />
+ * Layout (big endian, offsets are absolute):
+ * * header: magic, version, string count, module count, index offset
+ * * string table: offset of each string then strings as length prefixed UTF-8; strings are interned and referenced by id, -1 meaning null
+ * * parameter, processor, source and transformer tables followed by their module record, for each module
+ * * index: key id and module record offset for each module, sorted by key
+ *
+ * @see #write(java.io.File, java.util.Map)
+ */
+public final class Catalog {
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+    static final int MAGIC = 0x4D43544C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int NULL_STRING = -1;
+
+    static final int PARAMETER_SIZE = 13;
+    static final int PROCESSOR_SIZE = 25;
+    static final int SOURCE_SIZE = 20;
+    static final int TRANSFORMER_SIZE = 16;
+    static final int MODULE_SIZE = 48;
+    static final int INDEX_ENTRY_SIZE = 8;
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final int moduleCount;
+    private final int indexOffset;
+    //Decoded strings, lazily populated. Racy but Strings are immutable.
+    private final String[] strings;
+
+    private Catalog(final File file, final ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < Catalog.HEADER_SIZE || buffer.getInt(0) != Catalog.MAGIC) {
+            throw new IOException("<"+file+"> is not a catalog");
+        }
+        final int version = buffer.getInt(4);
+        if (version != Catalog.VERSION) {
+            throw new IOException("Unsupported catalog version <"+version+"> for <"+file+">");
+        }
+        this.strings = new String[buffer.getInt(8)];
+        this.moduleCount = buffer.getInt(12);
+        this.indexOffset = buffer.getInt(16);
+    }
+
+    /**
+     * @param file
+     * @return a {@link Catalog} mapping `file`
+     * @throws IOException
+     */
+    public static Catalog open(final File file) throws IOException {
+        Preconditions.checkNotNull(file, "null file");
+
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            //Mapping stays valid once channel is closed.
+            return new Catalog(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Write `modules` as a catalog to `file`.
+     * <br />
+     * The catalog is written to a temporary file then renamed to `file`: {@link Catalog}s previously opened on `file` keep on reading their original content.
+     * @param file
+     * @param modules {@link Module}s by key, e.g. their `artifactId:version`
+     * @throws IOException
+     */
+    public static void write(final File file, final Map<String, Module> modules) throws IOException {
+        Preconditions.checkNotNull(file, "null file");
+        Preconditions.checkNotNull(modules, "null modules");
+
+        new CatalogWriter(modules).write(file);
+    }
+
+    final int getInt(final int offset) {
+        return this.buffer.getInt(offset);
+    }
+
+    final boolean getBoolean(final int offset) {
+        return this.buffer.get(offset) != 0;
+    }
+
+    /**
+     * @param id
+     * @return string with specified id, null for {@link #NULL_STRING}
+     */
+    @Nullable
+    final String getString(final int id) {
+        if (id == Catalog.NULL_STRING) {
+            return null;
+        }
+
+        String string = this.strings[id];
+        if (string == null) {
+            final int offset = this.buffer.getInt(Catalog.HEADER_SIZE + 4 * id);
+            final byte[] bytes = new byte[this.buffer.getInt(offset)];
+            //Duplicate as reading bulk bytes moves position.
+            final ByteBuffer duplicate = this.buffer.duplicate();
+            duplicate.position(offset + 4);
+            duplicate.get(bytes);
+            string = new String(bytes, Catalog.UTF8);
+            this.strings[id] = string;
+        }
+        return string;
+    }
+
+    private String getKey(final int index) {
+        return getString(getInt(this.indexOffset + index * Catalog.INDEX_ENTRY_SIZE));
+    }
+
+    /**
+     * @return number of {@link Module}s
+     */
+    public int size() {
+        return this.moduleCount;
+    }
+
+    /**
+     * @return all keys, sorted
+     */
+    public List<String> getKeys() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                Preconditions.checkElementIndex(index, Catalog.this.moduleCount);
+                return getKey(index);
+            }
+
+            @Override
+            public int size() {
+                return Catalog.this.moduleCount;
+            }
+        };
+    }
+
+    /**
+     * @param key
+     * @return {@link ModuleView} for `key`, null if none
+     */
+    @Nullable
+    public ModuleView get(final String key) {
+        Preconditions.checkNotNull(key, "null key");
+
+        int low = 0;
+        int high = this.moduleCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = getKey(middle).compareTo(key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return new ModuleView(this, getInt(this.indexOffset + middle * Catalog.INDEX_ENTRY_SIZE + 4));
+            }
+        }
+        return null;
+    }
+
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public String toString() {
+        return "file: <"+this.file+"> modules: <"+this.moduleCount+">";
+    }
+
+}
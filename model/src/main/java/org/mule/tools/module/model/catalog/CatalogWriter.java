@@ -0,0 +1,268 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mule.tools.module.helper.Files;
+import org.mule.tools.module.model.Module;
+import org.mule.tools.module.model.Parameter;
+import org.mule.tools.module.model.Processor;
+import org.mule.tools.module.model.Source;
+import org.mule.tools.module.model.Transformer;
+
+/**
+ * Writes {@link Catalog} files. See {@link Catalog} for layout.
+ * <br />
+ * All strings are interned first so that the string table size, hence the absolute offset of all tables, is known before writing them.
+ */
+final class CatalogWriter {
+
+    private final Map<String, Module> modules;
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();
+    private final List<byte[]> strings = new ArrayList<byte[]>();
+
+    CatalogWriter(final Map<String, Module> modules) {
+        //Sorted by key as expected by index binary search.
+        this.modules = new TreeMap<String, Module>(modules);
+    }
+
+    private void intern(final String string) {
+        if (string != null && !this.ids.containsKey(string)) {
+            this.ids.put(string, this.strings.size());
+            this.strings.add(string.getBytes(Catalog.UTF8));
+        }
+    }
+
+    private void intern(final List<Parameter> parameters) {
+        for (final Parameter parameter : parameters) {
+            intern(parameter.getName());
+            intern(parameter.getTypeName());
+            intern(parameter.getDefaultValue());
+        }
+    }
+
+    private void intern(final Module module) {
+        intern(module.getName());
+        intern(module.getMinMuleVersion());
+        intern(module.getType());
+        intern(module.getConnectionManagerType());
+        intern(module.getParameters());
+        for (final Processor processor : module.getProcessors()) {
+            intern(processor.getName());
+            intern(processor.getFriendlyName());
+            intern(processor.getType());
+            intern(processor.getReturnType());
+            intern(processor.getParameters());
+        }
+        for (final Source source : module.getSources()) {
+            intern(source.getName());
+            intern(source.getFriendlyName());
+            intern(source.getType());
+            intern(source.getParameters());
+        }
+        for (final Transformer transformer : module.getTransformers()) {
+            intern(transformer.getType());
+            for (final String sourceTypeName : transformer.getSourceTypeNames()) {
+                intern(sourceTypeName);
+            }
+        }
+    }
+
+    private int id(final String string) {
+        return string == null ? Catalog.NULL_STRING : this.ids.get(string);
+    }
+
+    /**
+     * Writes tables to a memory buffer; offsets are made absolute by adding `base`.
+     */
+    private final class Body {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output = new DataOutputStream(this.bytes);
+        private final int base;
+
+        private Body(final int base) {
+            this.base = base;
+        }
+
+        private int offset() {
+            return this.base + this.output.size();
+        }
+
+        /**
+         * Ensure the table written from `offset` matches `recordSize` as expected by readers.
+         */
+        private void checkTable(final int offset, final int count, final int recordSize) {
+            Preconditions.checkState(offset() - offset == count * recordSize, "Wrote <"+(offset() - offset)+"> bytes for <"+count+"> records of <"+recordSize+"> bytes");
+        }
+
+        private int writeParameters(final List<Parameter> parameters) throws IOException {
+            final int offset = offset();
+            for (final Parameter parameter : parameters) {
+                this.output.writeInt(id(parameter.getName()));
+                this.output.writeInt(id(parameter.getTypeName()));
+                this.output.writeBoolean(parameter.isOptional());
+                this.output.writeInt(id(parameter.getDefaultValue()));
+            }
+            checkTable(offset, parameters.size(), Catalog.PARAMETER_SIZE);
+            return offset;
+        }
+
+        private int writeModule(final Module module) throws IOException {
+            final int parametersOffset = writeParameters(module.getParameters());
+
+            final List<Integer> processorParametersOffsets = new ArrayList<Integer>();
+            for (final Processor processor : module.getProcessors()) {
+                processorParametersOffsets.add(writeParameters(processor.getParameters()));
+            }
+            final int processorsOffset = offset();
+            for (int i = 0; i < module.getProcessors().size(); i++) {
+                final Processor processor = module.getProcessors().get(i);
+                this.output.writeInt(id(processor.getName()));
+                this.output.writeInt(id(processor.getFriendlyName()));
+                this.output.writeInt(id(processor.getType()));
+                this.output.writeInt(id(processor.getReturnType()));
+                this.output.writeBoolean(processor.isIntercepting());
+                this.output.writeInt(processor.getParameters().size());
+                this.output.writeInt(processorParametersOffsets.get(i));
+            }
+            checkTable(processorsOffset, module.getProcessors().size(), Catalog.PROCESSOR_SIZE);
+
+            final List<Integer> sourceParametersOffsets = new ArrayList<Integer>();
+            for (final Source source : module.getSources()) {
+                sourceParametersOffsets.add(writeParameters(source.getParameters()));
+            }
+            final int sourcesOffset = offset();
+            for (int i = 0; i < module.getSources().size(); i++) {
+                final Source source = module.getSources().get(i);
+                this.output.writeInt(id(source.getName()));
+                this.output.writeInt(id(source.getFriendlyName()));
+                this.output.writeInt(id(source.getType()));
+                this.output.writeInt(source.getParameters().size());
+                this.output.writeInt(sourceParametersOffsets.get(i));
+            }
+            checkTable(sourcesOffset, module.getSources().size(), Catalog.SOURCE_SIZE);
+
+            final List<Integer> sourceTypesOffsets = new ArrayList<Integer>();
+            for (final Transformer transformer : module.getTransformers()) {
+                sourceTypesOffsets.add(offset());
+                for (final String sourceTypeName : transformer.getSourceTypeNames()) {
+                    this.output.writeInt(id(sourceTypeName));
+                }
+            }
+            final int transformersOffset = offset();
+            for (int i = 0; i < module.getTransformers().size(); i++) {
+                final Transformer transformer = module.getTransformers().get(i);
+                this.output.writeInt(id(transformer.getType()));
+                this.output.writeInt(transformer.getPriorityWeighting());
+                this.output.writeInt(transformer.getSourceTypeNames().length);
+                this.output.writeInt(sourceTypesOffsets.get(i));
+            }
+            checkTable(transformersOffset, module.getTransformers().size(), Catalog.TRANSFORMER_SIZE);
+
+            final int moduleOffset = offset();
+            this.output.writeInt(id(module.getName()));
+            this.output.writeInt(id(module.getMinMuleVersion()));
+            this.output.writeInt(id(module.getType()));
+            this.output.writeInt(id(module.getConnectionManagerType()));
+            this.output.writeInt(module.getParameters().size());
+            this.output.writeInt(parametersOffset);
+            this.output.writeInt(module.getProcessors().size());
+            this.output.writeInt(processorsOffset);
+            this.output.writeInt(module.getSources().size());
+            this.output.writeInt(sourcesOffset);
+            this.output.writeInt(module.getTransformers().size());
+            this.output.writeInt(transformersOffset);
+            checkTable(moduleOffset, 1, Catalog.MODULE_SIZE);
+            return moduleOffset;
+        }
+
+    }
+
+    void write(final File file) throws IOException {
+        for (final Map.Entry<String, Module> entry : this.modules.entrySet()) {
+            intern(entry.getKey());
+            intern(entry.getValue());
+        }
+
+        int stringTableSize = 4 * this.strings.size();
+        for (final byte[] string : this.strings) {
+            stringTableSize += 4 + string.length;
+        }
+        final Body body = new Body(Catalog.HEADER_SIZE + stringTableSize);
+        final List<Integer> moduleOffsets = new ArrayList<Integer>(this.modules.size());
+        for (final Module module : this.modules.values()) {
+            moduleOffsets.add(body.writeModule(module));
+        }
+        final int indexOffset = body.offset();
+        int i = 0;
+        for (final String key : this.modules.keySet()) {
+            body.output.writeInt(id(key));
+            body.output.writeInt(moduleOffsets.get(i++));
+        }
+        body.checkTable(indexOffset, this.modules.size(), Catalog.INDEX_ENTRY_SIZE);
+        body.output.flush();
+
+        //Catalogs already mapping `file` keep on reading its previous content: rewriting it in place would corrupt them.
+        final File temporaryFile = Files.createTemporaryFile(file);
+        try {
+            writeTo(temporaryFile, indexOffset, body);
+            Files.replace(temporaryFile, file);
+        } finally {
+            temporaryFile.delete();
+        }
+    }
+
+    private void writeTo(final File file, final int indexOffset, final Body body) throws IOException {
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(Catalog.MAGIC);
+            output.writeInt(Catalog.VERSION);
+            output.writeInt(this.strings.size());
+            output.writeInt(this.modules.size());
+            output.writeInt(indexOffset);
+            int stringOffset = Catalog.HEADER_SIZE + 4 * this.strings.size();
+            for (final byte[] string : this.strings) {
+                output.writeInt(stringOffset);
+                stringOffset += 4 + string.length;
+            }
+            for (final byte[] string : this.strings) {
+                output.writeInt(string.length);
+                output.write(string);
+            }
+            body.bytes.writeTo(output);
+        } finally {
+            output.close();
+        }
+    }
+
+}
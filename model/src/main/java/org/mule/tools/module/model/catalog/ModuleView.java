@@ -0,0 +1,142 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.model.Module;
+import org.mule.tools.module.model.Processor;
+import org.mule.tools.module.model.Source;
+import org.mule.tools.module.model.Transformer;
+
+/**
+ * Flyweight view of a {@link Module} stored in a {@link Catalog}: all accessors read from the mapping.
+ * Use {@link #toModule(java.lang.ClassLoader)} to get a regular {@link Module}.
+ */
+public final class ModuleView {
+
+    private final Catalog catalog;
+    private final int offset;
+
+    ModuleView(final Catalog catalog, final int offset) {
+        this.catalog = catalog;
+        this.offset = offset;
+    }
+
+    private int getInt(final int field) {
+        return this.catalog.getInt(this.offset + 4 * field);
+    }
+
+    public String getName() {
+        return this.catalog.getString(getInt(0));
+    }
+
+    public String getMinMuleVersion() {
+        return this.catalog.getString(getInt(1));
+    }
+
+    public String getType() {
+        return this.catalog.getString(getInt(2));
+    }
+
+    @Nullable
+    public String getConnectionManagerType() {
+        return this.catalog.getString(getInt(3));
+    }
+
+    public List<ParameterView> getParameters() {
+        return ParameterView.list(this.catalog, getInt(4), getInt(5));
+    }
+
+    public List<ProcessorView> getProcessors() {
+        return ProcessorView.list(this.catalog, getInt(6), getInt(7));
+    }
+
+    /**
+     * @param name
+     * @return {@link ProcessorView} with specified name, null if none can be found
+     */
+    @Nullable
+    public ProcessorView getProcessor(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        for (final ProcessorView processor : getProcessors()) {
+            if (name.equals(processor.getName())) {
+                return processor;
+            }
+        }
+        return null;
+    }
+
+    public List<SourceView> getSources() {
+        return SourceView.list(this.catalog, getInt(8), getInt(9));
+    }
+
+    /**
+     * @param name
+     * @return {@link SourceView} with specified name, null if none can be found
+     */
+    @Nullable
+    public SourceView getSource(final String name) {
+        Preconditions.checkNotNull(name, "null name");
+
+        for (final SourceView source : getSources()) {
+            if (name.equals(source.getName())) {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    public List<TransformerView> getTransformers() {
+        return TransformerView.list(this.catalog, getInt(10), getInt(11));
+    }
+
+    /**
+     * @param classLoader used to lazily load types
+     * @return a {@link Module} copy of this view
+     */
+    public Module toModule(final ClassLoader classLoader) {
+        Preconditions.checkNotNull(classLoader, "null classLoader");
+
+        final List<Processor> processors = new ArrayList<Processor>();
+        for (final ProcessorView processor : getProcessors()) {
+            processors.add(processor.toProcessor(classLoader));
+        }
+        final List<Source> sources = new ArrayList<Source>();
+        for (final SourceView source : getSources()) {
+            sources.add(source.toSource(classLoader));
+        }
+        final List<Transformer> transformers = new ArrayList<Transformer>();
+        for (final TransformerView transformer : getTransformers()) {
+            transformers.add(transformer.toTransformer(classLoader));
+        }
+        return new Module(getName(), getMinMuleVersion(), getType(), ParameterView.toParameters(getParameters(), classLoader), processors, sources, transformers, getConnectionManagerType());
+    }
+
+    @Override
+    public String toString() {
+        return "name: <"+getName()+"> type: <"+getType()+"> processors: <"+getProcessors().size()+"> sources: <"+getSources().size()+">";
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.model.Parameter;
+
+/**
+ * Flyweight view of a {@link Parameter} stored in a {@link Catalog}.
+ */
+public final class ParameterView {
+
+    private final Catalog catalog;
+    private final int offset;
+
+    ParameterView(final Catalog catalog, final int offset) {
+        this.catalog = catalog;
+        this.offset = offset;
+    }
+
+    /**
+     * @return a {@link List} of `count` {@link ParameterView}s stored from `offset`
+     */
+    static List<ParameterView> list(final Catalog catalog, final int count, final int offset) {
+        return new AbstractList<ParameterView>() {
+            @Override
+            public ParameterView get(final int index) {
+                Preconditions.checkElementIndex(index, count);
+                return new ParameterView(catalog, offset + index * Catalog.PARAMETER_SIZE);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * @return {@link Parameter}s materialized from `parameters`
+     */
+    static List<Parameter> toParameters(final List<ParameterView> parameters, final ClassLoader classLoader) {
+        final List<Parameter> materializedParameters = new ArrayList<Parameter>(parameters.size());
+        for (final ParameterView parameter : parameters) {
+            materializedParameters.add(parameter.toParameter(classLoader));
+        }
+        return materializedParameters;
+    }
+
+    public String getName() {
+        return this.catalog.getString(this.catalog.getInt(this.offset));
+    }
+
+    public String getTypeName() {
+        return this.catalog.getString(this.catalog.getInt(this.offset + 4));
+    }
+
+    public boolean isOptional() {
+        return this.catalog.getBoolean(this.offset + 8);
+    }
+
+    @Nullable
+    public String getDefaultValue() {
+        return this.catalog.getString(this.catalog.getInt(this.offset + 9));
+    }
+
+    /**
+     * @param classLoader used to lazily load type
+     * @return a {@link Parameter} copy of this view
+     */
+    public Parameter toParameter(final ClassLoader classLoader) {
+        return new Parameter(getName(), getTypeName(), classLoader, isOptional(), getDefaultValue());
+    }
+
+    @Override
+    public String toString() {
+        return "name: <"+getName()+"> optional: <"+isOptional()+">"+(getDefaultValue() != null?" default: <"+getDefaultValue()+">":"");
+    }
+
+}
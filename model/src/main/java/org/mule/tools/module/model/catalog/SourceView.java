@@ -0,0 +1,90 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import org.mule.tools.module.model.Source;
+
+/**
+ * Flyweight view of a {@link Source} stored in a {@link Catalog}.
+ */
+public final class SourceView {
+
+    private final Catalog catalog;
+    private final int offset;
+
+    SourceView(final Catalog catalog, final int offset) {
+        this.catalog = catalog;
+        this.offset = offset;
+    }
+
+    /**
+     * @return a {@link List} of `count` {@link SourceView}s stored from `offset`
+     */
+    static List<SourceView> list(final Catalog catalog, final int count, final int offset) {
+        return new AbstractList<SourceView>() {
+            @Override
+            public SourceView get(final int index) {
+                Preconditions.checkElementIndex(index, count);
+                return new SourceView(catalog, offset + index * Catalog.SOURCE_SIZE);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public String getName() {
+        return this.catalog.getString(this.catalog.getInt(this.offset));
+    }
+
+    @Nullable
+    public String getFriendlyName() {
+        return this.catalog.getString(this.catalog.getInt(this.offset + 4));
+    }
+
+    public String getType() {
+        return this.catalog.getString(this.catalog.getInt(this.offset + 8));
+    }
+
+    public List<ParameterView> getParameters() {
+        return ParameterView.list(this.catalog, this.catalog.getInt(this.offset + 12), this.catalog.getInt(this.offset + 16));
+    }
+
+    /**
+     * @param classLoader used to lazily load parameter types
+     * @return a {@link Source} copy of this view
+     */
+    public Source toSource(final ClassLoader classLoader) {
+        return new Source(getName(), getFriendlyName(), getType(), ParameterView.toParameters(getParameters(), classLoader));
+    }
+
+    @Override
+    public String toString() {
+        return "name: <"+getName()+"> friendlyName: <"+getFriendlyName()+"> type: <"+getType()+"> parameters: <"+getParameters()+">";
+    }
+
+}
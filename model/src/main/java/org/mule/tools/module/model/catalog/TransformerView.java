@@ -0,0 +1,90 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import com.google.common.base.Preconditions;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mule.tools.module.model.Transformer;
+
+/**
+ * Flyweight view of a {@link Transformer} stored in a {@link Catalog}.
+ */
+public final class TransformerView {
+
+    private final Catalog catalog;
+    private final int offset;
+
+    TransformerView(final Catalog catalog, final int offset) {
+        this.catalog = catalog;
+        this.offset = offset;
+    }
+
+    /**
+     * @return a {@link List} of `count` {@link TransformerView}s stored from `offset`
+     */
+    static List<TransformerView> list(final Catalog catalog, final int count, final int offset) {
+        return new AbstractList<TransformerView>() {
+            @Override
+            public TransformerView get(final int index) {
+                Preconditions.checkElementIndex(index, count);
+                return new TransformerView(catalog, offset + index * Catalog.TRANSFORMER_SIZE);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public String getType() {
+        return this.catalog.getString(this.catalog.getInt(this.offset));
+    }
+
+    public int getPriorityWeighting() {
+        return this.catalog.getInt(this.offset + 4);
+    }
+
+    public String[] getSourceTypeNames() {
+        final String[] sourceTypeNames = new String[this.catalog.getInt(this.offset + 8)];
+        final int sourceTypesOffset = this.catalog.getInt(this.offset + 12);
+        for (int i = 0; i < sourceTypeNames.length; i++) {
+            sourceTypeNames[i] = this.catalog.getString(this.catalog.getInt(sourceTypesOffset + 4 * i));
+        }
+        return sourceTypeNames;
+    }
+
+    /**
+     * @param classLoader used to lazily load source types
+     * @return a {@link Transformer} copy of this view
+     */
+    public Transformer toTransformer(final ClassLoader classLoader) {
+        return new Transformer(getType(), getPriorityWeighting(), getSourceTypeNames(), classLoader);
+    }
+
+    @Override
+    public String toString() {
+        return "type: <"+getType()+"> priorityWeighting: <"+getPriorityWeighting()+"> sourceTypes: <"+Arrays.toString(getSourceTypeNames())+">";
+    }
+
+}
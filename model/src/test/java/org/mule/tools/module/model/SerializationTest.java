@@ -0,0 +1,153 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SerializationTest {
+
+    private static Package createPackage() throws Exception {
+        final List<Parameter> parameters = Arrays.asList(new Parameter("count", int.class, false, null), new Parameter("names", String[].class, true, "a,b"), new Parameter("matrix", long[][].class, true, null), new Parameter("url", URL.class, true, "http://localhost"));
+        final List<Parameter> otherParameters = Arrays.asList(new Parameter("count", int.class, true, "1"), new Parameter("payload", byte[].class, false, null));
+        final List<Processor> processors = Arrays.asList(new Processor("get", null, "org.mule.GetProcessor", parameters, "java.lang.String", false), new Processor("put", "Put", "org.mule.PutProcessor", otherParameters, "void", true));
+        final List<Source> sources = Arrays.asList(new Source("listen", null, "org.mule.ListenSource", otherParameters));
+        final List<Transformer> transformers = Arrays.asList(new Transformer("org.mule.Transformer", 5, new Class<?>[]{String.class, byte[].class, long.class}), new Transformer("org.mule.EmptyTransformer", 0, new Class<?>[0]));
+        final Module module = new Module("module", "3.2", "org.mule.Module", parameters, processors, sources, transformers, null);
+        final Map<Metadata.Icon, URL> icons = new EnumMap<Metadata.Icon, URL>(Metadata.Icon.class);
+        icons.put(Metadata.Icon.CLOUD_CONNECTOR_SMALL, new URL("http://localhost/small.png"));
+        icons.put(Metadata.Icon.ENDPOINT_LARGE, new URL("http://localhost/large.png"));
+        return new Package(module, new Metadata(new URL("http://localhost"), icons));
+    }
+
+    private static byte[] write(final Package module) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        Serialization.write(module, output);
+        output.close();
+        return bytes.toByteArray();
+    }
+
+    private static Package read(final byte[] bytes) throws IOException {
+        return Serialization.read(new DataInputStream(new ByteArrayInputStream(bytes)), SerializationTest.class.getClassLoader());
+    }
+
+    private static void assertParametersEqual(final List<Parameter> expected, final List<Parameter> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            Assert.assertEquals(expected.get(i).getTypeName(), actual.get(i).getTypeName());
+            Assert.assertEquals(expected.get(i).getType(), actual.get(i).getType());
+            Assert.assertEquals(expected.get(i).isOptional(), actual.get(i).isOptional());
+            Assert.assertEquals(expected.get(i).getDefaultValue(), actual.get(i).getDefaultValue());
+        }
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        final Package expected = SerializationTest.createPackage();
+        final Package actual = SerializationTest.read(SerializationTest.write(expected));
+
+        final Module expectedModule = expected.getModule();
+        final Module actualModule = actual.getModule();
+        Assert.assertEquals(expectedModule.getName(), actualModule.getName());
+        Assert.assertEquals(expectedModule.getMinMuleVersion(), actualModule.getMinMuleVersion());
+        Assert.assertEquals(expectedModule.getType(), actualModule.getType());
+        Assert.assertNull(actualModule.getConnectionManagerType());
+        SerializationTest.assertParametersEqual(expectedModule.getParameters(), actualModule.getParameters());
+
+        Assert.assertEquals(expectedModule.getProcessors().size(), actualModule.getProcessors().size());
+        for (int i = 0; i < expectedModule.getProcessors().size(); i++) {
+            final Processor expectedProcessor = expectedModule.getProcessors().get(i);
+            final Processor actualProcessor = actualModule.getProcessors().get(i);
+            Assert.assertEquals(expectedProcessor.getName(), actualProcessor.getName());
+            Assert.assertEquals(expectedProcessor.getFriendlyName(), actualProcessor.getFriendlyName());
+            Assert.assertEquals(expectedProcessor.getType(), actualProcessor.getType());
+            Assert.assertEquals(expectedProcessor.getReturnType(), actualProcessor.getReturnType());
+            Assert.assertEquals(expectedProcessor.isIntercepting(), actualProcessor.isIntercepting());
+            SerializationTest.assertParametersEqual(expectedProcessor.getParameters(), actualProcessor.getParameters());
+        }
+
+        Assert.assertEquals(expectedModule.getSources().size(), actualModule.getSources().size());
+        final Source actualSource = actualModule.getSources().get(0);
+        Assert.assertEquals("listen", actualSource.getName());
+        Assert.assertNull(actualSource.getFriendlyName());
+        Assert.assertEquals("org.mule.ListenSource", actualSource.getType());
+        SerializationTest.assertParametersEqual(expectedModule.getSources().get(0).getParameters(), actualSource.getParameters());
+
+        Assert.assertEquals(expectedModule.getTransformers().size(), actualModule.getTransformers().size());
+        for (int i = 0; i < expectedModule.getTransformers().size(); i++) {
+            final Transformer expectedTransformer = expectedModule.getTransformers().get(i);
+            final Transformer actualTransformer = actualModule.getTransformers().get(i);
+            Assert.assertEquals(expectedTransformer.getType(), actualTransformer.getType());
+            Assert.assertEquals(expectedTransformer.getPriorityWeighting(), actualTransformer.getPriorityWeighting());
+            Assert.assertArrayEquals(expectedTransformer.getSourceTypeNames(), actualTransformer.getSourceTypeNames());
+            Assert.assertArrayEquals(expectedTransformer.getSourceTypes(), actualTransformer.getSourceTypes());
+        }
+
+        Assert.assertEquals(expected.getMetadata().getHomepage(), actual.getMetadata().getHomepage());
+        Assert.assertEquals(expected.getMetadata().getIcons(), actual.getMetadata().getIcons());
+    }
+
+    @Test
+    public void repeatedStringsAreWrittenOnce() throws Exception {
+        final byte[] bytes = SerializationTest.write(SerializationTest.createPackage());
+        final String content = new String(bytes, "ISO-8859-1");
+
+        Assert.assertEquals(content.indexOf("org.mule.Transformer"), content.lastIndexOf("org.mule.Transformer"));
+        Assert.assertEquals(content.indexOf("payload"), content.lastIndexOf("payload"));
+        Assert.assertEquals(content.indexOf("[B"), content.lastIndexOf("[B"));
+    }
+
+    @Test
+    public void emptyIcons() throws Exception {
+        final Module module = new Module("module", "3.2", "org.mule.Module", Collections.<Parameter>emptyList(), Collections.<Processor>emptyList(), Collections.<Source>emptyList(), Collections.<Transformer>emptyList(), "org.mule.ConnectionManager");
+        final Package actual = SerializationTest.read(SerializationTest.write(new Package(module, new Metadata(new URL("http://localhost"), new EnumMap<Metadata.Icon, URL>(Metadata.Icon.class)))));
+
+        Assert.assertEquals("org.mule.ConnectionManager", actual.getModule().getConnectionManagerType());
+        Assert.assertTrue(actual.getModule().getProcessors().isEmpty());
+        Assert.assertTrue(actual.getMetadata().getIcons().isEmpty());
+    }
+
+    @Test(expected=IOException.class)
+    public void invalidInput() throws Exception {
+        final byte[] bytes = SerializationTest.write(SerializationTest.createPackage());
+        bytes[0]++;
+        SerializationTest.read(bytes);
+    }
+
+    @Test(expected=IOException.class)
+    public void truncatedInput() throws Exception {
+        final byte[] bytes = SerializationTest.write(SerializationTest.createPackage());
+        SerializationTest.read(Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+}
@@ -0,0 +1,194 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.
+ *
+ * Copyright 2012 Julien Eluard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *     [http://www.apache.org/licenses/LICENSE-2.0]
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.mule.tools.module.model.catalog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mule.tools.module.model.Module;
+import org.mule.tools.module.model.Parameter;
+import org.mule.tools.module.model.Processor;
+import org.mule.tools.module.model.Source;
+import org.mule.tools.module.model.Transformer;
+
+public class CatalogTest {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        this.file = File.createTempFile("catalog", ".tmp");
+    }
+
+    @After
+    public void deleteFile() {
+        this.file.delete();
+    }
+
+    private static Module createModule(final int i) {
+        final List<Parameter> parameters = new ArrayList<Parameter>();
+        for (int j = 0; j < i % 4; j++) {
+            parameters.add(new Parameter("parameter"+j, j % 2 == 0 ? String.class : int[].class, j % 2 == 0, j % 3 == 0 ? null : "d\u00e9faut"+j));
+        }
+        final List<Processor> processors = new ArrayList<Processor>();
+        for (int j = 0; j < i % 3; j++) {
+            processors.add(new Processor("processor"+j, j % 2 == 0 ? null : "Processor "+j, "org.mule.Processor"+i, parameters, "java.lang.String", j % 2 == 0));
+        }
+        final List<Source> sources = i % 2 == 0 ? Collections.<Source>emptyList() : Arrays.asList(new Source("source", null, "org.mule.Source"+i, parameters));
+        final List<Transformer> transformers = Arrays.asList(new Transformer("org.mule.Transformer"+i, i, new Class<?>[]{String.class, long.class}), new Transformer("org.mule.EmptyTransformer", 0, new Class<?>[0]));
+        return new Module("module"+i, "3.2."+i, "org.mule.Module"+i, parameters, processors, sources, transformers, i % 2 == 0 ? null : "org.mule.ConnectionManager");
+    }
+
+    private static Map<String, Module> createModules(final int count) {
+        final Map<String, Module> modules = new HashMap<String, Module>();
+        for (int i = 0; i < count; i++) {
+            modules.put("k"+i, CatalogTest.createModule(i));
+        }
+        return modules;
+    }
+
+    private static void assertParametersEqual(final List<Parameter> expected, final List<ParameterView> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            Assert.assertEquals(expected.get(i).getTypeName(), actual.get(i).getTypeName());
+            Assert.assertEquals(expected.get(i).isOptional(), actual.get(i).isOptional());
+            Assert.assertEquals(expected.get(i).getDefaultValue(), actual.get(i).getDefaultValue());
+        }
+    }
+
+    private static void assertModuleEquals(final Module expected, final ModuleView actual) {
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getMinMuleVersion(), actual.getMinMuleVersion());
+        Assert.assertEquals(expected.getType(), actual.getType());
+        Assert.assertEquals(expected.getConnectionManagerType(), actual.getConnectionManagerType());
+        CatalogTest.assertParametersEqual(expected.getParameters(), actual.getParameters());
+
+        Assert.assertEquals(expected.getProcessors().size(), actual.getProcessors().size());
+        for (final Processor processor : expected.getProcessors()) {
+            final ProcessorView processorView = actual.getProcessor(processor.getName());
+            Assert.assertNotNull(processorView);
+            Assert.assertEquals(processor.getFriendlyName(), processorView.getFriendlyName());
+            Assert.assertEquals(processor.getType(), processorView.getType());
+            Assert.assertEquals(processor.getReturnType(), processorView.getReturnType());
+            Assert.assertEquals(processor.isIntercepting(), processorView.isIntercepting());
+            CatalogTest.assertParametersEqual(processor.getParameters(), processorView.getParameters());
+        }
+
+        Assert.assertEquals(expected.getSources().size(), actual.getSources().size());
+        for (final Source source : expected.getSources()) {
+            final SourceView sourceView = actual.getSource(source.getName());
+            Assert.assertNotNull(sourceView);
+            Assert.assertEquals(source.getFriendlyName(), sourceView.getFriendlyName());
+            Assert.assertEquals(source.getType(), sourceView.getType());
+            CatalogTest.assertParametersEqual(source.getParameters(), sourceView.getParameters());
+        }
+
+        Assert.assertEquals(expected.getTransformers().size(), actual.getTransformers().size());
+        for (int i = 0; i < expected.getTransformers().size(); i++) {
+            Assert.assertEquals(expected.getTransformers().get(i).getType(), actual.getTransformers().get(i).getType());
+            Assert.assertEquals(expected.getTransformers().get(i).getPriorityWeighting(), actual.getTransformers().get(i).getPriorityWeighting());
+            Assert.assertArrayEquals(expected.getTransformers().get(i).getSourceTypeNames(), actual.getTransformers().get(i).getSourceTypeNames());
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final Map<String, Module> modules = CatalogTest.createModules(100);
+        Catalog.write(this.file, modules);
+        final Catalog catalog = Catalog.open(this.file);
+
+        Assert.assertEquals(modules.size(), catalog.size());
+        final List<String> keys = catalog.getKeys();
+        Assert.assertEquals(modules.size(), keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            Assert.assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+        for (final Map.Entry<String, Module> entry : modules.entrySet()) {
+            final ModuleView moduleView = catalog.get(entry.getKey());
+            Assert.assertNotNull(moduleView);
+            CatalogTest.assertModuleEquals(entry.getValue(), moduleView);
+        }
+        Assert.assertNull(catalog.get("a"));
+        Assert.assertNull(catalog.get("k50a"));
+        Assert.assertNull(catalog.get("z"));
+    }
+
+    @Test
+    public void toModule() throws IOException {
+        final Module expected = CatalogTest.createModule(7);
+        Catalog.write(this.file, Collections.singletonMap("k", expected));
+
+        final Module actual = Catalog.open(this.file).get("k").toModule(getClass().getClassLoader());
+        Assert.assertEquals(expected.getName(), actual.getName());
+        Assert.assertEquals(expected.getConnectionManagerType(), actual.getConnectionManagerType());
+        Assert.assertEquals(expected.getParameters().size(), actual.getParameters().size());
+        for (int i = 0; i < expected.getParameters().size(); i++) {
+            Assert.assertEquals(expected.getParameters().get(i).getType(), actual.getParameters().get(i).getType());
+        }
+        Assert.assertEquals(expected.getProcessors().toString(), actual.getProcessors().toString());
+        Assert.assertEquals(expected.getSources().toString(), actual.getSources().toString());
+        Assert.assertArrayEquals(expected.getTransformers().get(0).getSourceTypes(), actual.getTransformers().get(0).getSourceTypes());
+    }
+
+    @Test
+    public void emptyCatalog() throws IOException {
+        Catalog.write(this.file, Collections.<String, Module>emptyMap());
+        final Catalog catalog = Catalog.open(this.file);
+
+        Assert.assertEquals(0, catalog.size());
+        Assert.assertTrue(catalog.getKeys().isEmpty());
+        Assert.assertNull(catalog.get("k"));
+    }
+
+    @Test
+    public void rewriteDoesNotAffectOpenedCatalog() throws IOException {
+        Catalog.write(this.file, CatalogTest.createModules(2000));
+        final Catalog catalog = Catalog.open(this.file);
+
+        Catalog.write(this.file, CatalogTest.createModules(1));
+
+        Assert.assertEquals("module999", catalog.get("k999").getName());
+        Assert.assertEquals(2000, catalog.size());
+        Assert.assertEquals(1, Catalog.open(this.file).size());
+    }
+
+    @Test(expected=IOException.class)
+    public void invalidFile() throws IOException {
+        final FileOutputStream output = new FileOutputStream(this.file);
+        try {
+            output.write(new byte[64]);
+        } finally {
+            output.close();
+        }
+        Catalog.open(this.file);
+    }
+
+}